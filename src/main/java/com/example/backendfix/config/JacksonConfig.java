@@ -0,0 +1,20 @@
+package com.example.backendfix.config;
+
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Serialize uninitialized Hibernate proxies (e.g. the product reference of a newly
+     * created order) as their identifier instead of loading them outside a transaction.
+     */
+    @Bean
+    public Hibernate6Module hibernate6Module() {
+        return new Hibernate6Module()
+                .enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+    }
+
+}
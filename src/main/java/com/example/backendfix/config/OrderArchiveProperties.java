@@ -0,0 +1,32 @@
+package com.example.backendfix.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the job that moves old orders into orders_archive.
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.archive")
+public class OrderArchiveProperties {
+
+    private boolean enabled = true;
+
+    /** Orders created longer ago than this are archived. */
+    private Duration maxAge = Duration.ofDays(90);
+
+    /** Orders moved per chunk; each chunk is its own transaction. */
+    private int chunkSize = 1000;
+
+    /** Pause between chunks, leaving the connection pool and the table to live traffic. */
+    private Duration pause = Duration.ofMillis(200);
+
+    /** Upper bound on chunks per run, so one run cannot go on for hours. */
+    private int maxChunksPerRun = 500;
+
+    /** Delay between the end of one run and the start of the next. */
+    private Duration interval = Duration.ofHours(1);
+
+}
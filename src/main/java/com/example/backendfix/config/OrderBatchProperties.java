@@ -0,0 +1,19 @@
+package com.example.backendfix.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for bulk order creation (POST /orders/batch).
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.batch")
+public class OrderBatchProperties {
+
+    /** Orders persisted between flush/clear cycles; keep in step with hibernate.jdbc.batch_size. */
+    private int chunkSize = 50;
+
+    /** Largest number of orders accepted in one request. */
+    private int maxSize = 10_000;
+
+}
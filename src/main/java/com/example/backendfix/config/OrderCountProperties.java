@@ -0,0 +1,18 @@
+package com.example.backendfix.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-memory order total served by count=estimate listings.
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.count")
+public class OrderCountProperties {
+
+    /** How long the estimated total may be served before it is re-counted. */
+    private Duration resyncInterval = Duration.ofMinutes(5);
+
+}
@@ -0,0 +1,21 @@
+package com.example.backendfix.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for Idempotency-Key handling on POST /orders.
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.idempotency")
+public class OrderIdempotencyProperties {
+
+    /** Most keys kept in memory; the oldest are evicted first. */
+    private int maxEntries = 100_000;
+
+    /** How long a key's response is served from memory. */
+    private Duration ttl = Duration.ofHours(24);
+
+}
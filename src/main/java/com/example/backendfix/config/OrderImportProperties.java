@@ -0,0 +1,19 @@
+package com.example.backendfix.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for streaming order imports (POST /orders/import).
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.import")
+public class OrderImportProperties {
+
+    /** Rows written per multi-row INSERT; each chunk commits in its own transaction. */
+    private int chunkSize = 500;
+
+    /** Rejected lines listed in the report; further rejections are only counted. */
+    private int maxReportedRejections = 100;
+
+}
@@ -0,0 +1,39 @@
+package com.example.backendfix.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for order ingestion through POST /orders.
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.ingest")
+public class OrderIngestProperties {
+
+    public enum Mode {
+        /** Each request commits its own order. */
+        SYNC,
+        /** Requests are queued and committed in groups by a background batcher. */
+        ASYNC
+    }
+
+    private Mode mode = Mode.SYNC;
+
+    /** Orders that may wait in memory; further requests get 429. */
+    private int queueCapacity = 10_000;
+
+    /** Largest group committed in one transaction. */
+    private int maxBatchSize = 500;
+
+    /** Longest time an order waits for its group to fill before it is committed. */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /** How long ticket status stays available after submission. */
+    private Duration ticketRetention = Duration.ofMinutes(10);
+
+    /** How long shutdown waits for queued orders to be committed. */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+}
@@ -0,0 +1,21 @@
+package com.example.backendfix.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for stock reservations and their reconciliation into products.stock.
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.inventory")
+public class OrderInventoryProperties {
+
+    /** How often reserved-but-unreconciled orders are applied to products.stock. */
+    private Duration reconcileInterval = Duration.ofSeconds(2);
+
+    /** Orders reconciled per transaction. */
+    private int reconcileBatchSize = 1000;
+
+}
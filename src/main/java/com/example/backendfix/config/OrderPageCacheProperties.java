@@ -0,0 +1,32 @@
+package com.example.backendfix.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the cache of serialized order listing pages.
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.page-cache")
+public class OrderPageCacheProperties {
+
+    private boolean enabled = true;
+
+    /** Only pages 0 .. max-pages - 1 of the default listing are cached, for every page size. */
+    private int maxPages = 3;
+
+    /** Serialized pages kept at most, across page sizes and count modes. */
+    private long maximumSize = 500;
+
+    /** Pages are re-serialized this long after they were cached, bounding staleness across nodes. */
+    private Duration expireAfterWrite = Duration.ofSeconds(30);
+
+    /** Keep a gzip-compressed copy of pages at least this large for clients that accept it. */
+    private boolean gzip = true;
+
+    private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+
+}
@@ -0,0 +1,25 @@
+package com.example.backendfix.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits applied to order listing requests before they reach the database.
+ */
+@Data
+@ConfigurationProperties(prefix = "orders.query")
+public class OrderQueryProperties {
+
+    /** Largest page size a client may request. */
+    private int maxPageSize = 100;
+
+    /** Largest OFFSET (page * size) served by offset pagination; deeper pages must use the cursor. */
+    private long maxOffset = 10_000;
+
+    /** Clamp oversized pages to maxPageSize instead of rejecting them. */
+    private boolean clampPageSize = false;
+
+    /** Let identical concurrent listing requests share one read (single-flight). */
+    private boolean coalesce = true;
+
+}
@@ -0,0 +1,21 @@
+package com.example.backendfix.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the in-process Product cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "products.cache")
+public class ProductCacheProperties {
+
+    /** Products (and, separately, names) kept at most; least recently used entries go first. */
+    private long maximumSize = 10_000;
+
+    /** Entries are reloaded this long after they were cached, bounding staleness across nodes. */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+}
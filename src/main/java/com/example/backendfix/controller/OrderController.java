@@ -1,14 +1,49 @@
 package com.example.backendfix.controller;
 
+import com.example.backendfix.dto.BatchOrderResponse;
+import com.example.backendfix.dto.CursorPage;
+import com.example.backendfix.dto.OrderImportReport;
+import com.example.backendfix.dto.OrderListing;
+import com.example.backendfix.dto.OrderPatch;
+import com.example.backendfix.dto.OrderSearchCriteria;
+import com.example.backendfix.dto.OrderSummary;
+import com.example.backendfix.dto.OrderTicket;
 import com.example.backendfix.entity.Order;
+import com.example.backendfix.exception.InvalidRequestException;
+import com.example.backendfix.exception.ResourceNotFoundException;
+import com.example.backendfix.service.CountMode;
+import com.example.backendfix.service.OrderFileFormat;
+import com.example.backendfix.service.OrderIdempotencyCache;
+import com.example.backendfix.service.OrderImportService;
+import com.example.backendfix.service.OrderPageCache;
+import com.example.backendfix.service.OrderQueryCoalescer;
+import com.example.backendfix.service.OrderQueryGuard;
 import com.example.backendfix.service.OrderService;
+import com.example.backendfix.service.OrderSortKey;
+import com.example.backendfix.service.OrderWriteBehindQueue;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/orders")
@@ -16,20 +51,245 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderQueryGuard orderQueryGuard;
+    private final OrderWriteBehindQueue orderWriteBehindQueue;
+    private final OrderIdempotencyCache orderIdempotencyCache;
+    private final OrderImportService orderImportService;
+    private final OrderPageCache orderPageCache;
+    private final OrderQueryCoalescer orderQueryCoalescer;
 
     @GetMapping
-    public ResponseEntity<Page<Order>> getAllOrders(
+    public ResponseEntity<Slice<Order>> getAllOrders(
             @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") String count,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            WebRequest webRequest,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Pageable pageable = orderQueryGuard.toPageable(page, size);
+        CountMode countMode = CountMode.fromParameter(count);
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                .productId(productId)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .sortKey(OrderSortKey.fromParameter(sort))
+                .direction(parseDirection(direction))
+                .build();
+
+        // Hot pages are served from their cached response bytes: no query, entities or JSON
+        Optional<OrderPageCache.Key> cacheKey = orderPageCache.keyFor(pageable, countMode, criteria);
+        Optional<OrderPageCache.SerializedPage> cached = cacheKey.flatMap(orderPageCache::get);
+        if (cached.isPresent()) {
+            OrderPageCache.SerializedPage hit = cached.get();
+            if (hit.etag() == null || !webRequest.checkNotModified(hit.etag())) {
+                writeSerializedPage(hit, request, response);
+            }
+            return null;
+        }
+
+        // Identical concurrent requests (same query and If-None-Match tags) share one read.
+        // The page cache generation moves on every local order write, so a request only
+        // joins a read that started after the last write it could have seen committed.
+        ListingKey key = new ListingKey(pageable, countMode, criteria, clientETags(request),
+                orderPageCache.generation());
+        ListingRead read = orderQueryCoalescer.execute(key, () -> readListing(key, cacheKey));
+
+        // Conditional GET: unchanged polls get 304 before any page is queried or serialized.
+        // Only exact-count listings carry an ETag.
+        if (read.etag() != null && webRequest.checkNotModified(read.etag())) {
+            return null;
+        }
+        if (read.page() == null) {
+            // The service matched a tag that Spring does not; read the page after all
+            read = readListing(new ListingKey(pageable, countMode, criteria, List.of(), key.generation()), cacheKey);
+        }
+        if (read.serialized() == null) {
+            return ResponseEntity.ok(read.page());
+        }
+        writeSerializedPage(read.serialized(), request, response);
+        return null;
+    }
+
+    private record ListingKey(Pageable pageable, CountMode countMode, OrderSearchCriteria criteria,
+                              List<String> clientETags, long generation) {
+    }
+
+    /**
+     * ETag of a listing and its page (null when the client's copy is current),
+     * serialized when the page is cacheable.
+     */
+    private record ListingRead(String etag, Slice<Order> page, OrderPageCache.SerializedPage serialized) {
+    }
+
+    private ListingRead readListing(ListingKey key, Optional<OrderPageCache.Key> cacheKey) {
+        OrderListing listing = orderService.readListingIfChanged(
+                key.criteria(), key.pageable(), key.countMode(), key.clientETags());
+        if (listing.getPage() == null || cacheKey.isEmpty()) {
+            return new ListingRead(listing.getEtag(), listing.getPage(), null);
+        }
+        // Serialized once, outside the transaction, for every request sharing this read
+        return new ListingRead(listing.getEtag(), listing.getPage(), orderPageCache.put(
+                cacheKey.get(), key.generation(), listing.getPage(), listing.getEtag()));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<Order>> getOrdersAfter(
+            @RequestParam String after,
             @RequestParam(defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Order> orders = orderService.getAllOrders(pageable);
+        CursorPage<Order> orders = orderService.getOrdersAfter(after, orderQueryGuard.checkPageSize(size));
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<Page<OrderSummary>> getOrderSummaries(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = orderQueryGuard.toPageable(page, size);
+        Page<OrderSummary> summaries = orderService.getOrderSummaries(pageable);
+        return ResponseEntity.ok(summaries);
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<Slice<OrderSummary>> getArchivedOrders(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = orderQueryGuard.toPageable(page, size);
+        Slice<OrderSummary> archivedOrders = orderService.getArchivedOrders(pageable);
+        return ResponseEntity.ok(archivedOrders);
+    }
+
+    @GetMapping("/archive/{id}")
+    public ResponseEntity<OrderSummary> getArchivedOrder(@PathVariable Long id) {
+        return ResponseEntity.ok(orderService.getArchivedOrder(id));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        OrderFileFormat exportFormat = OrderFileFormat.fromParameter(format);
+        StreamingResponseBody body = outputStream -> orderService.exportOrders(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=orders." + exportFormat.getFileExtension())
+                .body(body);
+    }
+
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody Order order) {
+    public ResponseEntity<?> createOrder(
+            @RequestBody Order order,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            Order createdOrder = orderIdempotencyCache.createOrder(idempotencyKey, order);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+        }
+        if (orderWriteBehindQueue.isEnabled()) {
+            OrderTicket ticket = orderWriteBehindQueue.submit(order);
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/orders/tickets/" + ticket.getTicketId())
+                    .body(ticket);
+        }
         Order createdOrder = orderService.createOrder(order);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
     }
 
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<OrderTicket> getTicket(@PathVariable String ticketId) {
+        OrderTicket ticket = orderWriteBehindQueue.findTicket(ticketId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found with id: " + ticketId));
+        return ResponseEntity.ok(ticket);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchOrderResponse> createOrders(@RequestBody List<Order> orders) {
+        BatchOrderResponse response = orderService.createOrders(orders);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<OrderImportReport> importOrders(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        // The body is read straight from the request stream; nothing is buffered in memory
+        OrderFileFormat format = OrderFileFormat.fromContentType(contentType);
+        OrderImportReport report = orderImportService.importOrders(format, request.getInputStream());
+        return ResponseEntity.ok(report);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> updateOrder(
+            @PathVariable Long id,
+            @RequestBody OrderPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null) {
+            patch.setVersion(parseVersion(ifMatch));
+        }
+        long version = orderService.updateOrder(id, patch);
+        return ResponseEntity.noContent()
+                .eTag(Long.toString(version))
+                .build();
+    }
+
+    private static Long parseVersion(String ifMatch) {
+        try {
+            return Long.valueOf(ifMatch.replace("\"", "").trim());
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException("If-Match must carry the order version: " + ifMatch);
+        }
+    }
+
+    /**
+     * Opaque tags from If-None-Match, without quotes or weak prefixes.
+     */
+    private static List<String> clientETags(HttpServletRequest request) {
+        List<String> tags = new ArrayList<>();
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        while (headers.hasMoreElements()) {
+            for (String tag : headers.nextElement().split(",")) {
+                String opaque = tag.trim();
+                if (opaque.startsWith("W/")) {
+                    opaque = opaque.substring(2);
+                }
+                opaque = opaque.replace("\"", "");
+                if (!opaque.isEmpty()) {
+                    tags.add(opaque);
+                }
+            }
+        }
+        return tags;
+    }
+
+    private static void writeSerializedPage(OrderPageCache.SerializedPage page,
+                                            HttpServletRequest request,
+                                            HttpServletResponse response) throws IOException {
+        byte[] body = page.json();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (page.gzip() != null && acceptsGzip(request)) {
+            body = page.gzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static Sort.Direction parseDirection(String direction) {
+        return Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new InvalidRequestException("Unsupported sort direction: " + direction));
+    }
+
 }
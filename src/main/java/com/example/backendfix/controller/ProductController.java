@@ -0,0 +1,49 @@
+package com.example.backendfix.controller;
+
+import com.example.backendfix.dto.ProductSalesStats;
+import com.example.backendfix.dto.ProductStock;
+import com.example.backendfix.dto.StockAdjustment;
+import com.example.backendfix.exception.InvalidRequestException;
+import com.example.backendfix.exception.ResourceNotFoundException;
+import com.example.backendfix.service.InventoryReservations;
+import com.example.backendfix.service.ProductCache;
+import com.example.backendfix.service.ProductSalesCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/products")
+@RequiredArgsConstructor
+public class ProductController {
+
+    private final ProductCache productCache;
+    private final ProductSalesCounter productSalesCounter;
+    private final InventoryReservations inventoryReservations;
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ProductSalesStats> getSalesStats(@PathVariable Long id) {
+        if (!productCache.exists(id)) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+        return ResponseEntity.ok(productSalesCounter.getStats(id));
+    }
+
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<ProductStock> getStock(@PathVariable Long id) {
+        return ResponseEntity.ok(ProductStock.builder()
+                .productId(id)
+                .available(inventoryReservations.available(id).orElse(null))
+                .build());
+    }
+
+    @PostMapping("/{id}/stock")
+    public ResponseEntity<ProductStock> adjustStock(@PathVariable Long id, @RequestBody StockAdjustment adjustment) {
+        if (adjustment.getDelta() == null) {
+            throw new InvalidRequestException("delta is required");
+        }
+        inventoryReservations.restock(id, adjustment.getDelta());
+        return getStock(id);
+    }
+
+}
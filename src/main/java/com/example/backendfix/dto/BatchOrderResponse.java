@@ -0,0 +1,20 @@
+package com.example.backendfix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOrderResponse {
+
+    private int created;
+    private int rejected;
+    private List<BatchOrderResult> results;
+
+}
@@ -0,0 +1,24 @@
+package com.example.backendfix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOrderResult {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    private int index;
+    private Status status;
+    private Long id;
+    private String error;
+
+}
@@ -0,0 +1,32 @@
+package com.example.backendfix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderImportReport {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejection {
+
+        private long line;
+        private String reason;
+
+    }
+
+    private long linesRead;
+    private long imported;
+    private long rejected;
+    private int chunksCommitted;
+    private List<Rejection> rejections;
+
+}
@@ -0,0 +1,23 @@
+package com.example.backendfix.dto;
+
+import com.example.backendfix.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+/**
+ * One listing page with its ETag (null for listings without an exact count). The page is
+ * null when the client already holds the current version.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderListing {
+
+    private String etag;
+    private Slice<Order> page;
+
+}
@@ -0,0 +1,24 @@
+package com.example.backendfix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Body of PATCH /orders/{id}. Absent fields are left unchanged; version is the value the
+ * client last read and may instead be sent as an If-Match header.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPatch {
+
+    private Integer quantity;
+    private BigDecimal price;
+    private Long version;
+
+}
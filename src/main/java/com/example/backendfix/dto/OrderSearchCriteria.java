@@ -0,0 +1,59 @@
+package com.example.backendfix.dto;
+
+import com.example.backendfix.service.OrderSortKey;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSearchCriteria {
+
+    private Long productId;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    @Builder.Default
+    private OrderSortKey sortKey = OrderSortKey.ID;
+
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.DESC;
+
+    public boolean hasCreatedAtRange() {
+        return createdFrom != null || createdTo != null;
+    }
+
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    public boolean hasFilters() {
+        return productId != null || hasCreatedAtRange() || hasPriceRange();
+    }
+
+    /**
+     * True for the default listing (no filters, newest first), which has dedicated
+     * query paths.
+     */
+    public boolean isDefaultListing() {
+        return !hasFilters() && sortKey == OrderSortKey.ID && direction == Sort.Direction.DESC;
+    }
+
+    /**
+     * Sort on the requested key with id as tie-breaker, matching the (column, id) indexes.
+     */
+    public Sort toSort() {
+        Sort sort = Sort.by(direction, sortKey.getProperty());
+        return sortKey == OrderSortKey.ID ? sort : sort.and(Sort.by(direction, OrderSortKey.ID.getProperty()));
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.example.backendfix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Product, quantity and version of an order: what a quantity change needs to re-reserve
+ * stock. Built by a JPQL constructor expression.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStockLine {
+
+    private Long productId;
+    private Integer quantity;
+    private Long version;
+
+}
@@ -0,0 +1,29 @@
+package com.example.backendfix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of an order for listings, built directly by a JPQL constructor
+ * expression. No entity is hydrated or tracked by the persistence context.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummary {
+
+    private Long id;
+    private Integer quantity;
+    private BigDecimal price;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long productId;
+    private String productName;
+
+}
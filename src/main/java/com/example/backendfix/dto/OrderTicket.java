@@ -0,0 +1,29 @@
+package com.example.backendfix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderTicket {
+
+    public enum Status {
+        PENDING,
+        COMMITTED,
+        REJECTED,
+        FAILED
+    }
+
+    private String ticketId;
+    private volatile Status status;
+    private volatile Long orderId;
+    private volatile String error;
+    private LocalDateTime submittedAt;
+
+}
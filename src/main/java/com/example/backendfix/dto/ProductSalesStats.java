@@ -0,0 +1,21 @@
+package com.example.backendfix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSalesStats {
+
+    private Long productId;
+    private long unitsSold;
+    private BigDecimal revenue;
+    private long orderCount;
+
+}
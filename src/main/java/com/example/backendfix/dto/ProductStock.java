@@ -0,0 +1,20 @@
+package com.example.backendfix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Units of a product available for new orders; null when its stock is not tracked.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStock {
+
+    private Long productId;
+    private Long available;
+
+}
@@ -0,0 +1,19 @@
+package com.example.backendfix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of POST /products/{id}/stock: units added to stock, or removed if negative.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAdjustment {
+
+    private Long delta;
+
+}
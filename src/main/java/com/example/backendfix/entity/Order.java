@@ -1,12 +1,18 @@
 package com.example.backendfix.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "orders")
 @Table(name = "orders")
 @Data
 @NoArgsConstructor
@@ -15,7 +21,8 @@ import java.time.LocalDateTime;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,21 +35,47 @@ public class Order {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
+    @JsonIgnore
+    @Column(name = "idempotency_key", length = 64, unique = true, updatable = false)
+    private String idempotencyKey;
+
+    /**
+     * True while the order's stock reservation has not yet been applied to products.stock.
+     */
+    @JsonIgnore
+    @Column(name = "stock_pending", nullable = false)
+    private boolean stockPending;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * Optimistic lock version; PATCH /orders/{id} must present the current value.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Timestamps are kept at the microsecond precision of the TIMESTAMP columns, so the
+     * order returned by a create equals the one read back later.
+     */
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = now();
+        updatedAt = createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = now();
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
 }
@@ -1,11 +1,17 @@
 package com.example.backendfix.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
+@EntityListeners(ProductCacheInvalidator.class)
 @Table(name = "products")
 @Data
 @NoArgsConstructor
@@ -14,7 +20,8 @@ import java.time.LocalDateTime;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -23,6 +30,15 @@ public class Product {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    /**
+     * Units in stock as of the last reconciliation; null if stock is not tracked.
+     * Live availability is kept by InventoryReservations and served by
+     * GET /products/{id}/stock; it is not part of the JSON, so cached order pages and
+     * their ETags do not go stale whenever stock is reconciled.
+     */
+    @JsonIgnore
+    private Long stock;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,27 @@
+package com.example.backendfix.entity;
+
+import com.example.backendfix.service.ProductCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Evicts products from {@link ProductCache} when they are updated or removed through JPA.
+ * Instantiated by Spring through Hibernate's bean container; the cache is looked up
+ * lazily because it depends on the EntityManagerFactory that creates this listener.
+ */
+public class ProductCacheInvalidator {
+
+    private final ObjectProvider<ProductCache> productCache;
+
+    public ProductCacheInvalidator(ObjectProvider<ProductCache> productCache) {
+        this.productCache = productCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void evict(Product product) {
+        productCache.ifAvailable(cache -> cache.evict(product.getId()));
+    }
+
+}
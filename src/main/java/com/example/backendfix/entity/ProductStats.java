@@ -0,0 +1,38 @@
+package com.example.backendfix.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running sales totals of a product. Rows are only written by ProductSalesCounter,
+ * which adds batched deltas with plain SQL, so the mapping is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "product_stats")
+@Getter
+@NoArgsConstructor
+public class ProductStats {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "units_sold", nullable = false)
+    private Long unitsSold;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,9 @@
+package com.example.backendfix.exception;
+
+public class IngestQueueFullException extends RuntimeException {
+
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.backendfix.exception;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.example.backendfix.exception;
+
+public class OrderVersionConflictException extends RuntimeException {
+
+    public OrderVersionConflictException(String message) {
+        super(message);
+    }
+
+}
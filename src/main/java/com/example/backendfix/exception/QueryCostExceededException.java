@@ -0,0 +1,9 @@
+package com.example.backendfix.exception;
+
+public class QueryCostExceededException extends RuntimeException {
+
+    public QueryCostExceededException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.backendfix.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class ConnectionHoldTimeConfig {
+
+    /**
+     * Wrap the application DataSource so connection hold time can be measured per request.
+     */
+    @Bean
+    public static BeanPostProcessor connectionHoldTimeDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionHoldTimeDataSource)) {
+                    return new ConnectionHoldTimeDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.example.backendfix.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource wrapper that measures how long each connection is held, from checkout
+ * until close() returns it to the pool, and reports it to {@link ConnectionHoldTimeTracker}.
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource {
+
+    public ConnectionHoldTimeDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private static Connection track(Connection connection) {
+        long checkedOutAt = System.nanoTime();
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionHoldTimeDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && !closed[0]) {
+                        closed[0] = true;
+                        ConnectionHoldTimeTracker.record(System.nanoTime() - checkedOutAt);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+
+}
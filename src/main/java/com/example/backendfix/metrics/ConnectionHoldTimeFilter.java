@@ -0,0 +1,58 @@
+package com.example.backendfix.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records, per request, how long JDBC connections were held and how many were checked out.
+ *
+ * Published as "db.connection.hold" (timer) and "db.connection.checkouts" (summary),
+ * tagged with the HTTP method and the matched URI pattern. With open-in-view disabled
+ * the hold time should stay close to the service transaction time rather than the
+ * whole request, including serialization.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConnectionHoldTimeFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConnectionHoldTimeTracker.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long[] totals = ConnectionHoldTimeTracker.finish();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+            Timer.builder("db.connection.hold")
+                    .description("Time JDBC connections were held per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(totals[0], TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("db.connection.checkouts")
+                    .description("JDBC connections checked out per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(totals[1]);
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.example.backendfix.metrics;
+
+/**
+ * Per-thread total of the time JDBC connections were held during the current request.
+ *
+ * Connections handed out by {@link ConnectionHoldTimeDataSource} report their hold time
+ * here when they are closed (returned to the pool). Threads outside a tracked request,
+ * such as background jobs, are ignored.
+ */
+public final class ConnectionHoldTimeTracker {
+
+    private static final ThreadLocal<long[]> HELD_NANOS = new ThreadLocal<>();
+
+    private ConnectionHoldTimeTracker() {
+    }
+
+    public static void start() {
+        HELD_NANOS.set(new long[2]);
+    }
+
+    public static void record(long heldNanos) {
+        long[] totals = HELD_NANOS.get();
+        if (totals != null) {
+            totals[0] += heldNanos;
+            totals[1]++;
+        }
+    }
+
+    /**
+     * Stop tracking the current thread and return {total held nanos, connections checked out}.
+     */
+    public static long[] finish() {
+        long[] totals = HELD_NANOS.get();
+        HELD_NANOS.remove();
+        return totals == null ? new long[2] : totals;
+    }
+
+}
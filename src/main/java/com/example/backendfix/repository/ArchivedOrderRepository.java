@@ -0,0 +1,35 @@
+package com.example.backendfix.repository;
+
+import com.example.backendfix.dto.OrderSummary;
+import com.example.backendfix.entity.ArchivedOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    /**
+     * Fetch one slice of archived orders as summaries, newest id first.
+     *
+     * WHY THIS FIXES PERFORMANCE ISSUES:
+     * - No Entity Hydration: Archived orders are only read for display, so they are
+     *   projected straight into OrderSummary with their product name in one query.
+     * - No Count: The archive only grows; a Slice avoids COUNT(*) over it on every page.
+     */
+    @Query("SELECT new com.example.backendfix.dto.OrderSummary("
+            + "a.id, a.quantity, a.price, a.createdAt, a.updatedAt, p.id, p.name) "
+            + "FROM ArchivedOrder a JOIN a.product p ORDER BY a.id DESC")
+    Slice<OrderSummary> findArchivedSummaries(Pageable pageable);
+
+    @Query("SELECT new com.example.backendfix.dto.OrderSummary("
+            + "a.id, a.quantity, a.price, a.createdAt, a.updatedAt, p.id, p.name) "
+            + "FROM ArchivedOrder a JOIN a.product p WHERE a.id = :id")
+    Optional<OrderSummary> findArchivedSummaryById(@Param("id") Long id);
+
+}
@@ -1,37 +1,186 @@
 package com.example.backendfix.repository;
 
+import com.example.backendfix.dto.OrderStockLine;
+import com.example.backendfix.dto.OrderSummary;
 import com.example.backendfix.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
     /**
-     * Fetch all orders with their associated products using JOIN FETCH.
-     * 
+     * Phase 1 of a page load: select only the ids of one page of orders.
+     *
      * WHY THIS FIXES PERFORMANCE ISSUES:
-     * - Prevents N+1 Query Problem: Without JOIN FETCH, fetching 100 orders would execute
-     *   1 query to get orders + 100 queries to lazy-load each product (101 total queries).
-     *   With JOIN FETCH, we get all data in a SINGLE query using a JOIN.
-     * 
-     * - Reduces Network Roundtrips: Combines order and product data in one query result,
-     *   reducing database round trips from O(N) to O(1).
-     * 
-     * - Eager Loading: Products are loaded immediately with orders, eliminating the need
-     *   for separate lazy-load queries when accessing order.getProduct().
-     * 
-     * JPQL Query: "SELECT DISTINCT o FROM Order o JOIN FETCH o.product"
-     * - Translates to: SELECT DISTINCT o.*, p.* FROM orders o 
-     *   INNER JOIN products p ON o.product_id = p.id
-     */
-    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.product ORDER BY o.id DESC")
-    List<Order> findAllOrdersWithProducts();
+     * - Index-Only Page Scan: "SELECT o.id ... ORDER BY o.id DESC" is answered from the
+     *   primary key index. LIMIT/OFFSET apply to narrow id rows, not to a joined row set,
+     *   so the sort never touches products.
+     *
+     * - No DISTINCT: The old "SELECT DISTINCT o ... JOIN FETCH" forced a sort and dedupe
+     *   over the whole join. Ids are already unique.
+     *
+     * - Lightweight Count: The separate countQuery skips the join and the ORDER BY,
+     *   so totalElements costs a single COUNT over the orders table.
+     *
+     * - Query Cache: The id page and the count are cached by Hibernate and served from
+     *   memory until the orders table is written (see OrderCacheInvalidator for JDBC writes).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(value = "SELECT o.id FROM Order o ORDER BY o.id DESC",
+            countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<Long> findOrderIds(Pageable pageable);
 
-}
+    /**
+     * Phase 1 of a page load when no total is needed.
+     *
+     * WHY THIS FIXES PERFORMANCE ISSUES:
+     * - No COUNT(*): A Slice reads one row past the page to learn whether a next page
+     *   exists, which removes a full index scan from every request.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT o.id FROM Order o ORDER BY o.id DESC")
+    Slice<Long> findOrderIdSlice(Pageable pageable);
+
+    /**
+     * Phase 1 of a keyset page: ids of the orders below the last one the client saw.
+     *
+     * WHY THIS FIXES PERFORMANCE ISSUES:
+     * - Constant Cost per Page: "WHERE o.id < :afterId ORDER BY o.id DESC" is a range
+     *   seek on the primary key index, so page 10,000 is as cheap as page 1. OFFSET has
+     *   to walk and discard every skipped row first.
+     *
+     * - Stable Pages: Orders created while a client is paging get higher ids and never
+     *   shift rows between pages.
+     *
+     * The Pageable only supplies the LIMIT; its offset is always 0.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT o.id FROM Order o WHERE o.id < :afterId ORDER BY o.id DESC")
+    List<Long> findOrderIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Phase 2 of a page load: fetch the orders of one page; their products are attached
+     * afterwards from ProductCache.
+     *
+     * WHY THIS FIXES PERFORMANCE ISSUES:
+     * - Prevents N+1 Query Problem: The product association stays an uninitialized proxy,
+     *   so no product is lazy-loaded per order. The service resolves all products of the
+     *   page at once from the in-process cache (one IN query for misses at most).
+     *
+     * - No Join: Products change rarely and are served from memory, so the page query
+     *   reads only the orders table instead of joining products for every row.
+     *
+     * - Page-Sized Query: "WHERE o.id IN (:ids)" covers only the ids selected in phase 1,
+     *   so it reads page-size rows and never needs in-memory pagination.
+     *
+     * - Read-Only Fast Path: The entities are only serialized, so they are loaded read-only
+     *   (no dirty-checking snapshots) and the query never triggers an auto-flush.
+     *
+     * - Second-Level Cache: The query is cacheable and Order is a cached entity, so a
+     *   repeated page is assembled from memory without touching the database.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id DESC")
+    List<Order> findAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Fetch one page of order summaries as a DTO projection.
+     *
+     * WHY THIS FIXES PERFORMANCE ISSUES:
+     * - No Entity Hydration: The constructor expression returns plain OrderSummary objects,
+     *   so nothing is registered in the persistence context, no proxies are created and no
+     *   dirty-checking snapshots are kept for data that is only serialized.
+     *
+     * - Narrow Rows: Only the listed columns are selected, and the to-one join never
+     *   multiplies rows, so LIMIT/OFFSET apply directly in SQL.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(value = "SELECT new com.example.backendfix.dto.OrderSummary("
+            + "o.id, o.quantity, o.price, o.createdAt, o.updatedAt, p.id, p.name) "
+            + "FROM Order o JOIN o.product p ORDER BY o.id DESC",
+            countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<OrderSummary> findOrderSummaries(Pageable pageable);
+
+    /**
+     * Stream every order with its product, oldest first, for the bulk export.
+     *
+     * WHY THIS FIXES PERFORMANCE ISSUES:
+     * - One Long-Lived Query: The result is read through a JDBC cursor instead of
+     *   thousands of paged queries, each re-running its OFFSET skip and COUNT.
+     *
+     * - Bounded Fetch Size: The driver pulls rows from the server 500 at a time, so the
+     *   JDBC layer never buffers the whole table.
+     *
+     * - Read-Only Entities: No dirty-checking snapshots are kept, and the caller clears
+     *   the persistence context as it goes, keeping heap use constant.
+     *
+     * Must be consumed inside a transaction and closed (try-with-resources).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o JOIN FETCH o.product ORDER BY o.id")
+    Stream<Order> streamAllWithProducts();
+
+    /**
+     * Find the order created under an Idempotency-Key after a duplicate INSERT was rejected
+     * by the unique idempotency_key column. The product is left as a reference, as in the
+     * response to the original create, so a retry returns the same body.
+     */
+    @Query("SELECT o FROM Order o WHERE o.idempotencyKey = :idempotencyKey")
+    Optional<Order> findByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
 
+    /**
+     * Read the product, quantity and version of an order before its quantity is changed.
+     */
+    @Query("SELECT new com.example.backendfix.dto.OrderStockLine(o.product.id, o.quantity, o.version) "
+            + "FROM Order o WHERE o.id = :id")
+    Optional<OrderStockLine> findStockLineById(@Param("id") Long id);
+
+    /**
+     * Apply a partial update to quantity and/or price if the order is still at the expected version.
+     *
+     * WHY THIS FIXES PERFORMANCE ISSUES:
+     * - One Statement: The update is a single conditional UPDATE; the order is never loaded,
+     *   dirty-checked or flushed through the persistence context.
+     * - No Lost Updates: The version predicate makes the write compare-and-set, so a concurrent
+     *   update in between matches zero rows instead of being silently overwritten.
+     * - Null Means Unchanged: COALESCE keeps the current value for fields absent from the patch.
+     *
+     * @return the number of rows updated: 1 on success, 0 if the order is missing or its version moved on
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.quantity = COALESCE(:quantity, o.quantity), "
+            + "o.price = COALESCE(:price, o.price), "
+            + "o.updatedAt = :updatedAt, "
+            + "o.version = o.version + 1 "
+            + "WHERE o.id = :id AND o.version = :version")
+    int updateIfVersionMatches(@Param("id") Long id,
+                               @Param("version") long version,
+                               @Param("quantity") Integer quantity,
+                               @Param("price") BigDecimal price,
+                               @Param("updatedAt") LocalDateTime updatedAt);
+
+}
@@ -0,0 +1,16 @@
+package com.example.backendfix.repository;
+
+import com.example.backendfix.dto.OrderSearchCriteria;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Phase 1 of a filtered page load: ids of the orders matching the criteria, sorted by
+     * the criteria's sort key. Returns a Page when countTotal is set, otherwise a Slice
+     * that reads one extra row instead of running a COUNT.
+     */
+    Slice<Long> searchOrderIds(OrderSearchCriteria criteria, Pageable pageable, boolean countTotal);
+
+}
@@ -0,0 +1,93 @@
+package com.example.backendfix.repository;
+
+import com.example.backendfix.dto.OrderSearchCriteria;
+import com.example.backendfix.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria-based id queries for filtered order listings.
+ *
+ * Only the predicates that were actually requested are added to the WHERE clause, so
+ * each query matches one of the composite indexes on orders. A catch-all
+ * "(:param IS NULL OR column = :param)" query would defeat them.
+ */
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Long> searchOrderIds(OrderSearchCriteria criteria, Pageable pageable, boolean countTotal) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> idQuery = cb.createQuery(Long.class);
+        Root<Order> order = idQuery.from(Order.class);
+        idQuery.select(order.get("id"))
+                .where(toPredicates(criteria, cb, order))
+                .orderBy(toOrders(criteria.toSort(), cb, order));
+
+        int fetchSize = countTotal ? pageable.getPageSize() : pageable.getPageSize() + 1;
+        List<Long> ids = entityManager.createQuery(idQuery)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(fetchSize)
+                .getResultList();
+
+        if (!countTotal) {
+            boolean hasNext = ids.size() > pageable.getPageSize();
+            return new SliceImpl<>(hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+        }
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Order> countRoot = countQuery.from(Order.class);
+        countQuery.select(cb.count(countRoot)).where(toPredicates(criteria, cb, countRoot));
+        long total = entityManager.createQuery(countQuery).getSingleResult();
+
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    private static Predicate[] toPredicates(OrderSearchCriteria criteria, CriteriaBuilder cb, Root<Order> order) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getProductId() != null) {
+            predicates.add(cb.equal(order.get("product").get("id"), criteria.getProductId()));
+        }
+        if (criteria.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.<LocalDateTime>get("createdAt"), criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(order.<LocalDateTime>get("createdAt"), criteria.getCreatedTo()));
+        }
+        if (criteria.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.<BigDecimal>get("price"), criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(order.<BigDecimal>get("price"), criteria.getMaxPrice()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private static List<jakarta.persistence.criteria.Order> toOrders(Sort sort, CriteriaBuilder cb, Root<Order> order) {
+        List<jakarta.persistence.criteria.Order> orders = new ArrayList<>();
+        for (Sort.Order sortOrder : sort) {
+            orders.add(sortOrder.isAscending()
+                    ? cb.asc(order.get(sortOrder.getProperty()))
+                    : cb.desc(order.get(sortOrder.getProperty())));
+        }
+        return orders;
+    }
+
+}
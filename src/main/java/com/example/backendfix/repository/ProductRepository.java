@@ -0,0 +1,20 @@
+package com.example.backendfix.repository;
+
+import com.example.backendfix.entity.Product;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    /**
+     * Look up a product id by its unique name without loading the Product entity.
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+}
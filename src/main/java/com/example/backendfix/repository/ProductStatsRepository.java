@@ -0,0 +1,9 @@
+package com.example.backendfix.repository;
+
+import com.example.backendfix.entity.ProductStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductStatsRepository extends JpaRepository<ProductStats, Long> {
+}
@@ -0,0 +1,34 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.exception.InvalidRequestException;
+
+/**
+ * How the total of an order listing is computed.
+ */
+public enum CountMode {
+
+    /** Exact total from a COUNT query on every request. */
+    EXACT,
+
+    /** No total at all; the response is a Slice that only knows whether a next page exists. */
+    NONE,
+
+    /** Total taken from an in-memory counter kept up to date by createOrder. */
+    ESTIMATED;
+
+    /**
+     * Parse the "count" request parameter: true/exact, false/none or estimate/estimated.
+     */
+    public static CountMode fromParameter(String value) {
+        if (value == null) {
+            return EXACT;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "true", "exact" -> EXACT;
+            case "false", "none" -> NONE;
+            case "estimate", "estimated" -> ESTIMATED;
+            default -> throw new InvalidRequestException("Unsupported count mode: " + value);
+        };
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderInventoryProperties;
+import com.example.backendfix.exception.InvalidRequestException;
+import com.example.backendfix.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stock reservation for orders without locking the product row.
+ *
+ * Available stock per product lives in memory in a bucket updated by compare-and-set,
+ * so concurrent orders for the same product never wait on each other or on a
+ * database lock. An order that takes stock is inserted with stock_pending = TRUE in
+ * the same transaction, which makes the reservation durable. A scheduled
+ * reconciliation applies pending orders to products.stock in batches, one UPDATE per
+ * product per batch. After a restart, a bucket is rebuilt as products.stock minus the
+ * quantity of orders still pending.
+ *
+ * Products with a NULL stock are not tracked and always accept orders. Buckets are
+ * local to this node, so one node is expected to take orders for a given product.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryReservations {
+
+    public enum Outcome {
+        /** The product's stock is not tracked; nothing was reserved. */
+        UNTRACKED,
+        /** Stock was taken; the order must be stored with stock_pending = TRUE. */
+        RESERVED,
+        /** Not enough stock left. */
+        INSUFFICIENT
+    }
+
+    private static final String LOAD_AVAILABLE =
+            "SELECT p.stock - COALESCE((SELECT SUM(o.quantity) FROM orders o "
+                    + "WHERE o.product_id = p.id AND o.stock_pending = TRUE), 0) "
+                    + "FROM products p WHERE p.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final OrderInventoryProperties properties;
+    private final ProductCache productCache;
+    private final OrderCacheInvalidator orderCacheInvalidator;
+
+    private final Map<Long, StockBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Take stock for an order. Inside a transaction the stock is given back if the
+     * transaction does not commit.
+     */
+    public Outcome reserve(Long productId, int quantity) {
+        StockBucket bucket = bucket(productId);
+        if (!bucket.isTracked()) {
+            return Outcome.UNTRACKED;
+        }
+        if (!bucket.tryTake(quantity)) {
+            return Outcome.INSUFFICIENT;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        bucket.put(quantity);
+                    }
+                }
+            });
+        }
+        return Outcome.RESERVED;
+    }
+
+    /**
+     * Re-reserve stock after the quantity of an order changed by delta. Call inside the
+     * transaction that updated the order row, after the update: more units are taken like
+     * a new reservation, fewer are handed back on commit. If the order was already
+     * reconciled, the difference is also applied to products.stock in this transaction.
+     */
+    public Outcome adjust(Long orderId, Long productId, int delta) {
+        StockBucket bucket = bucket(productId);
+        if (!bucket.isTracked()) {
+            return Outcome.UNTRACKED;
+        }
+        if (delta > 0 && reserve(productId, delta) == Outcome.INSUFFICIENT) {
+            return Outcome.INSUFFICIENT;
+        }
+        if (delta < 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bucket.put(-delta);
+                }
+            });
+        }
+        // The order row is locked by the caller's update, so its pending flag cannot flip here;
+        // a pending order is applied later with its new quantity (see reconcileBatch)
+        Boolean pending = jdbcTemplate.queryForObject(
+                "SELECT stock_pending FROM orders WHERE id = ?", Boolean.class, orderId);
+        if (!Boolean.TRUE.equals(pending)) {
+            jdbcTemplate.update("UPDATE products SET stock = stock - ? WHERE id = ?", delta, productId);
+            productCache.evict(productId);
+        }
+        return Outcome.RESERVED;
+    }
+
+    public Optional<Long> available(Long productId) {
+        StockBucket bucket = bucket(productId);
+        return bucket.isTracked() ? Optional.of(bucket.available.get()) : Optional.empty();
+    }
+
+    /**
+     * Add (or remove, if negative) units of stock. Starts tracking a product whose
+     * stock was not tracked.
+     */
+    public void restock(Long productId, long delta) {
+        StockBucket bucket = bucket(productId);
+        if (bucket.isTracked() && delta < 0 && !bucket.tryTake(-delta)) {
+            throw new InvalidRequestException("Cannot remove more stock than is available");
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.update("UPDATE products SET stock = COALESCE(stock, 0) + ? WHERE id = ?",
+                            delta, productId));
+            productCache.evict(productId);
+        } catch (RuntimeException ex) {
+            if (bucket.isTracked() && delta < 0) {
+                bucket.put(-delta);
+            }
+            throw ex;
+        }
+        if (!bucket.isTracked()) {
+            // Rebuilt from the database on next use
+            buckets.remove(productId, bucket);
+        } else if (delta > 0) {
+            bucket.put(delta);
+        }
+    }
+
+    /**
+     * Apply pending reservations to products.stock, one batch per transaction.
+     */
+    @Scheduled(fixedDelayString = "${orders.inventory.reconcile-interval:PT2S}")
+    public void reconcile() {
+        int reconciled;
+        do {
+            reconciled = reconcileBatch();
+        } while (reconciled == properties.getReconcileBatchSize());
+    }
+
+    private int reconcileBatch() {
+        Integer reconciled = new TransactionTemplate(transactionManager).execute(status -> {
+            List<PendingOrder> pending = jdbcTemplate.query(
+                    "SELECT id, product_id, quantity FROM orders WHERE stock_pending = TRUE ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new PendingOrder(rs.getLong(1), rs.getLong(2), rs.getInt(3)),
+                    properties.getReconcileBatchSize());
+            if (pending.isEmpty()) {
+                return 0;
+            }
+
+            // Claim the orders first; an order claimed by a concurrent reconciliation, or whose
+            // quantity was changed since it was read, updates 0 rows and is left for the next batch
+            int[] claimed = jdbcTemplate.batchUpdate(
+                    "UPDATE orders SET stock_pending = FALSE WHERE id = ? AND stock_pending = TRUE AND quantity = ?",
+                    pending.stream().map(order -> new Object[]{order.id(), order.quantity()}).toList());
+            Map<Long, Long> quantityByProduct = new HashMap<>();
+            List<Long> claimedIds = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                if (claimed[i] != 0) {
+                    quantityByProduct.merge(pending.get(i).productId(), (long) pending.get(i).quantity(), Long::sum);
+                    claimedIds.add(pending.get(i).id());
+                }
+            }
+            orderCacheInvalidator.evictOrders(claimedIds);
+            jdbcTemplate.batchUpdate("UPDATE products SET stock = stock - ? WHERE id = ?",
+                    quantityByProduct.entrySet().stream()
+                            .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                            .toList());
+            quantityByProduct.keySet().forEach(productCache::evict);
+            return pending.size();
+        });
+        if (reconciled != null && reconciled > 0) {
+            log.debug("Reconciled stock for {} orders", reconciled);
+        }
+        return reconciled == null ? 0 : reconciled;
+    }
+
+    private StockBucket bucket(Long productId) {
+        StockBucket bucket = buckets.get(productId);
+        if (bucket != null) {
+            return bucket;
+        }
+        List<Long> available = jdbcTemplate.queryForList(LOAD_AVAILABLE, Long.class, productId);
+        if (available.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        StockBucket loaded = new StockBucket(available.get(0));
+        StockBucket existing = buckets.putIfAbsent(productId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static final class StockBucket {
+
+        /** Null when the product's stock is not tracked. */
+        private final AtomicLong available;
+
+        private StockBucket(Long available) {
+            this.available = available == null ? null : new AtomicLong(available);
+        }
+
+        boolean isTracked() {
+            return available != null;
+        }
+
+        boolean tryTake(long quantity) {
+            long current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            return true;
+        }
+
+        void put(long quantity) {
+            available.addAndGet(quantity);
+        }
+
+    }
+
+    private record PendingOrder(long id, long productId, int quantity) {
+    }
+
+}
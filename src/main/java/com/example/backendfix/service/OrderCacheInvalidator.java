@@ -0,0 +1,91 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.entity.Order;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the Hibernate second-level cache in step with order writes made through plain
+ * JDBC (imports, archival, stock reconciliation), which Hibernate cannot see.
+ * Writes through JPA and JPQL are invalidated by Hibernate itself.
+ *
+ * Cached queries are invalidated the way Hibernate invalidates them for its own bulk
+ * writes: the orders query space is marked as being written when the write runs and
+ * stamped when the transaction completes. A query that read before the commit carries
+ * an older timestamp, so its result is never served even if it is cached after the
+ * commit. Other query spaces and regions are left alone. Entity evictions run
+ * immediately and again once the transaction completes.
+ */
+@Component
+public class OrderCacheInvalidator {
+
+    private static final String[] ORDER_QUERY_SPACES = {"orders"};
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final SessionFactoryImplementor sessionFactory;
+    private final OrderPageCache orderPageCache;
+
+    public OrderCacheInvalidator(EntityManagerFactory entityManagerFactory, OrderPageCache orderPageCache) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.orderPageCache = orderPageCache;
+    }
+
+    /**
+     * Orders were inserted or deleted: invalidate cached order queries and serialized pages.
+     */
+    public void evictOrderPages() {
+        TimestampsCache timestamps = sessionFactory.getCache().getTimestampsCache();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            withSession(session -> timestamps.preInvalidate(ORDER_QUERY_SPACES, session));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    withSession(session -> timestamps.invalidate(ORDER_QUERY_SPACES, session));
+                }
+            });
+        } else {
+            withSession(session -> timestamps.invalidate(ORDER_QUERY_SPACES, session));
+        }
+        orderPageCache.invalidate();
+    }
+
+    /**
+     * Rows of these orders were updated or deleted: drop their cached entities.
+     */
+    public void evictOrders(Collection<Long> orderIds) {
+        List<Long> ids = List.copyOf(orderIds);
+        Cache cache = entityManagerFactory.getCache();
+        ids.forEach(id -> cache.evict(Order.class, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ids.forEach(id -> cache.evict(Order.class, id));
+                }
+            });
+        }
+    }
+
+    /**
+     * The timestamps cache needs a session for its statistics and events; a plain session
+     * does not take a connection unless it runs SQL.
+     */
+    private void withSession(Consumer<SharedSessionContractImplementor> action) {
+        try (Session session = sessionFactory.openSession()) {
+            action.accept((SharedSessionContractImplementor) session);
+        }
+    }
+
+}
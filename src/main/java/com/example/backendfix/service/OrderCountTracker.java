@@ -0,0 +1,75 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderCountProperties;
+import com.example.backendfix.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate number of orders, served from memory.
+ *
+ * The counter is seeded with one COUNT query, then adjusted whenever an order write
+ * commits. It is re-seeded after the resync interval to absorb writes made by other
+ * application nodes, so the estimated-total listing mode never runs COUNT(*) on the
+ * request path.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderCountTracker {
+
+    private final OrderRepository orderRepository;
+    private final OrderCountProperties properties;
+
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicBoolean resyncing = new AtomicBoolean();
+    private volatile long lastSyncNanos;
+    private volatile boolean initialized;
+
+    public long estimate() {
+        if (!initialized) {
+            synchronized (this) {
+                if (!initialized) {
+                    sync();
+                }
+            }
+        } else if (System.nanoTime() - lastSyncNanos > properties.getResyncInterval().toNanos()
+                && resyncing.compareAndSet(false, true)) {
+            // Only one caller pays for the COUNT; the others keep using the current value.
+            try {
+                sync();
+            } finally {
+                resyncing.set(false);
+            }
+        }
+        return count.get();
+    }
+
+    /**
+     * Record orders added (positive delta) or removed (negative delta). Inside a
+     * transaction the change is applied only once it commits.
+     */
+    public void adjust(long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    count.addAndGet(delta);
+                }
+            });
+        } else {
+            count.addAndGet(delta);
+        }
+    }
+
+    private void sync() {
+        count.set(orderRepository.count());
+        lastSyncNanos = System.nanoTime();
+        initialized = true;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination over orders (id DESC).
+ *
+ * The token only carries the id of the last order a client has seen. The next page
+ * is read with an index-backed "WHERE id < ?" seek, so every page costs the same no
+ * matter how deep the client is, and rows inserted meanwhile never shift a page.
+ */
+public final class OrderCursor {
+
+    private static final String PREFIX = "o:";
+
+    private OrderCursor() {
+    }
+
+    public static String encode(Long lastSeenId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastSeenId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor token into the id to seek after. A blank token starts at the
+     * newest order.
+     */
+    public static long decode(String token) {
+        if (token == null || token.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new InvalidRequestException("Invalid cursor: " + token);
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor: " + token, ex);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Line-oriented formats supported by the streaming order export and import.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum OrderFileFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    /**
+     * Resolve the format of an upload from its Content-Type.
+     */
+    public static OrderFileFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            for (OrderFileFormat format : values()) {
+                if (contentType.toLowerCase().startsWith(format.contentType)) {
+                    return format;
+                }
+            }
+        }
+        throw new InvalidRequestException("Unsupported content type: " + contentType);
+    }
+
+    public static OrderFileFormat fromParameter(String value) {
+        if (value == null) {
+            return NDJSON;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "ndjson", "json" -> NDJSON;
+            case "csv" -> CSV;
+            default -> throw new InvalidRequestException("Unsupported format: " + value);
+        };
+    }
+
+}
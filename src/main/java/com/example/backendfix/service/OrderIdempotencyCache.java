@@ -0,0 +1,108 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderIdempotencyProperties;
+import com.example.backendfix.entity.Order;
+import com.example.backendfix.exception.InvalidRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Deduplicates order creation by Idempotency-Key.
+ *
+ * Recent keys and the order each one created live in a bounded, expiring concurrent
+ * map, so a retried request returns the original order without touching the database.
+ * Concurrent requests with the same key wait for the first one instead of inserting
+ * twice. Keys that were evicted, or first seen on another node, fall back to the unique
+ * idempotency_key column: the duplicate INSERT fails and the original order is loaded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderIdempotencyCache {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final OrderService orderService;
+    private final OrderIdempotencyProperties properties;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    public Order createOrder(String idempotencyKey, Order order) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Entry entry = new Entry(idempotencyKey, new CompletableFuture<>(),
+                System.nanoTime() + properties.getTtl().toNanos());
+        Entry existing = entries.putIfAbsent(idempotencyKey, entry);
+        while (existing != null && existing.isExpired()) {
+            entries.remove(idempotencyKey, existing);
+            existing = entries.putIfAbsent(idempotencyKey, entry);
+        }
+        if (existing != null) {
+            // Retry or concurrent duplicate: reuse the original result
+            return await(existing);
+        }
+
+        insertionOrder.add(entry);
+        evict();
+        try {
+            entry.result().complete(create(idempotencyKey, order));
+        } catch (RuntimeException ex) {
+            // Failed attempts are not remembered so the client can retry
+            entries.remove(idempotencyKey, entry);
+            entry.result().completeExceptionally(ex);
+            throw ex;
+        }
+        return entry.result().join();
+    }
+
+    private Order create(String idempotencyKey, Order order) {
+        try {
+            return orderService.createOrder(order, idempotencyKey);
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Idempotency-Key {} already stored, returning the original order", idempotencyKey);
+            return orderService.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> ex);
+        }
+    }
+
+    private static Order await(Entry entry) {
+        try {
+            return entry.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void evict() {
+        Entry head;
+        while ((head = insertionOrder.peek()) != null
+                && (entries.size() > properties.getMaxEntries() || head.isExpired())) {
+            insertionOrder.poll();
+            entries.remove(head.key(), head);
+        }
+    }
+
+    private record Entry(String key, CompletableFuture<Order> result, long expiresAtNanos) {
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+
+    }
+
+}
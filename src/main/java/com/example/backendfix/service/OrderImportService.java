@@ -0,0 +1,321 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderImportProperties;
+import com.example.backendfix.dto.OrderImportReport;
+import com.example.backendfix.exception.InvalidRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Streaming bulk import of orders from CSV or NDJSON uploads.
+ *
+ * The upload is parsed line by line straight from the request stream, so the body is
+ * never buffered. Product names resolve to ids through {@link ProductCache}, and
+ * accepted rows are written as one multi-row INSERT per chunk, each chunk committing in
+ * its own short transaction. A chunk that fails to write is rolled back and its lines
+ * are reported as rejected; the import carries on with the next chunk. Ids come from
+ * orders_seq in pooled-lo blocks, the same scheme Hibernate uses for Order, so a chunk
+ * costs a handful of round trips. Imports carry historical orders, so they take no
+ * stock from {@link InventoryReservations}.
+ *
+ * CSV needs a header row naming its columns: product_id or product_name, quantity,
+ * price and optionally created_at (the export format is accepted as is). NDJSON
+ * lines carry productId/productName or a nested product object, quantity, price and
+ * optionally createdAt.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderImportService {
+
+    /** Must match allocationSize of Order.id and INCREMENT BY of orders_seq. */
+    private static final int ORDER_ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO orders (id, product_id, quantity, price, stock_pending, created_at, updated_at) VALUES ";
+    /** Imported orders are history: they take no stock and are never reconciled against it. */
+    private static final String INSERT_ROW = "(?, ?, ?, ?, FALSE, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ProductCache productCache;
+    private final OrderCountTracker orderCountTracker;
+    private final ProductSalesCounter productSalesCounter;
+    private final OrderCacheInvalidator orderCacheInvalidator;
+    private final OrderListingVersion orderListingVersion;
+    private final OrderImportProperties properties;
+
+    public OrderImportReport importOrders(OrderFileFormat format, InputStream inputStream) throws IOException {
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        ImportState state = new ImportState();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        Map<String, Integer> csvColumns = null;
+        List<ImportRow> chunk = new ArrayList<>(properties.getChunkSize());
+        String line;
+        while ((line = reader.readLine()) != null) {
+            state.linesRead++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == OrderFileFormat.CSV && csvColumns == null) {
+                csvColumns = parseCsvHeader(line);
+                continue;
+            }
+
+            try {
+                ImportRow row = format == OrderFileFormat.CSV
+                        ? parseCsvRow(state.linesRead, line, csvColumns)
+                        : parseJsonRow(state.linesRead, line);
+                chunk.add(row);
+            } catch (InvalidRequestException ex) {
+                state.reject(state.linesRead, ex.getMessage());
+                continue;
+            }
+
+            if (chunk.size() >= properties.getChunkSize()) {
+                writeChunk(chunk, chunkTransaction, state);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, chunkTransaction, state);
+        }
+
+        log.info("Order import finished: {} lines, {} imported, {} rejected in {} chunks",
+                state.linesRead, state.imported, state.rejected, state.chunksCommitted);
+        return OrderImportReport.builder()
+                .linesRead(state.linesRead)
+                .imported(state.imported)
+                .rejected(state.rejected)
+                .chunksCommitted(state.chunksCommitted)
+                .rejections(state.rejections)
+                .build();
+    }
+
+    private void writeChunk(List<ImportRow> rows, TransactionTemplate chunkTransaction, ImportState state) {
+        Integer written;
+        try {
+            written = chunkTransaction.execute(status -> insertChunk(rows, state));
+        } catch (DataAccessException | TransactionException ex) {
+            // Earlier chunks stay committed; the report names every line of this one as
+            // rejected, so the client knows exactly which lines to send again
+            log.warn("Order import chunk of lines {}-{} failed; rejecting it",
+                    rows.get(0).line(), rows.get(rows.size() - 1).line(), ex);
+            rows.forEach(row -> state.reject(row.line(), "Chunk write failed; line not imported"));
+            return;
+        }
+        state.imported += written == null ? 0 : written;
+        state.chunksCommitted++;
+        log.info("Order import progress: {} lines read, {} imported, {} rejected",
+                state.linesRead, state.imported, state.rejected);
+    }
+
+    private int insertChunk(List<ImportRow> rows, ImportState state) {
+        List<Object> args = new ArrayList<>(rows.size() * 6);
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        int count = 0;
+        for (ImportRow row : rows) {
+            Timestamp createdAt = Timestamp.valueOf(row.createdAt());
+            args.add(state.nextOrderId());
+            args.add(row.productId());
+            args.add(row.quantity());
+            args.add(row.price());
+            args.add(createdAt);
+            args.add(createdAt);
+            productSalesCounter.record(row.productId(), row.quantity(), row.price());
+            sql.append(count++ == 0 ? INSERT_ROW : ", " + INSERT_ROW);
+        }
+        if (count > 0) {
+            jdbcTemplate.update(sql.toString(), args.toArray());
+            orderCountTracker.adjust(count);
+            orderListingVersion.bump();
+            orderCacheInvalidator.evictOrderPages();
+        }
+        return count;
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        if (!columns.containsKey("quantity") || !columns.containsKey("price")
+                || !(columns.containsKey("product_id") || columns.containsKey("product_name"))) {
+            throw new InvalidRequestException(
+                    "CSV header must name product_id or product_name, quantity and price columns");
+        }
+        return columns;
+    }
+
+    private ImportRow parseCsvRow(long lineNumber, String line, Map<String, Integer> columns) {
+        List<String> values = splitCsv(line);
+        return toRow(lineNumber,
+                column(values, columns, "product_id"),
+                column(values, columns, "product_name"),
+                column(values, columns, "quantity"),
+                column(values, columns, "price"),
+                column(values, columns, "created_at"));
+    }
+
+    private ImportRow parseJsonRow(long lineNumber, String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException ex) {
+            throw new InvalidRequestException("Malformed JSON");
+        }
+        JsonNode product = node.path("product");
+        return toRow(lineNumber,
+                text(node.hasNonNull("productId") ? node.get("productId") : product.get("id")),
+                text(node.hasNonNull("productName") ? node.get("productName") : product.get("name")),
+                text(node.get("quantity")),
+                text(node.get("price")),
+                text(node.get("createdAt")));
+    }
+
+    private ImportRow toRow(long lineNumber, String productId, String productName,
+                            String quantity, String price, String createdAt) {
+        try {
+            Long resolvedProductId = resolveProduct(productId, productName);
+            int parsedQuantity = Integer.parseInt(required(quantity, "quantity"));
+            if (parsedQuantity < 1) {
+                throw new InvalidRequestException("quantity must be at least 1");
+            }
+            BigDecimal parsedPrice = new BigDecimal(required(price, "price"));
+            if (parsedPrice.signum() < 0) {
+                throw new InvalidRequestException("price must not be negative");
+            }
+            LocalDateTime parsedCreatedAt = createdAt == null ? LocalDateTime.now() : LocalDateTime.parse(createdAt);
+            return new ImportRow(lineNumber, resolvedProductId, parsedQuantity, parsedPrice, parsedCreatedAt);
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            throw new InvalidRequestException("Invalid value: " + ex.getMessage());
+        }
+    }
+
+    private Long resolveProduct(String productId, String productName) {
+        if (productId != null) {
+            Long id = Long.valueOf(productId);
+            if (!productCache.exists(id)) {
+                throw new InvalidRequestException("Product not found with id: " + id);
+            }
+            return id;
+        }
+        String name = required(productName, "product_name");
+        return productCache.findIdByName(name)
+                .orElseThrow(() -> new InvalidRequestException("Product not found with name: " + name));
+    }
+
+    private static String required(String value, String field) {
+        if (value == null) {
+            throw new InvalidRequestException(field + " is required");
+        }
+        return value;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private static String text(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields with "" escapes.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record ImportRow(long line, Long productId, int quantity, BigDecimal price, LocalDateTime createdAt) {
+    }
+
+    private final class ImportState {
+
+        private long linesRead;
+        private long imported;
+        private long rejected;
+        private int chunksCommitted;
+        private final List<OrderImportReport.Rejection> rejections = new ArrayList<>();
+
+        private long nextId;
+        private long blockEnd;
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (rejections.size() < properties.getMaxReportedRejections()) {
+                rejections.add(new OrderImportReport.Rejection(line, reason));
+            }
+        }
+
+        /**
+         * Pooled-lo id allocation: one sequence call reserves ORDER_ID_BLOCK_SIZE ids.
+         */
+        long nextOrderId() {
+            if (nextId >= blockEnd) {
+                Long blockStart = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR orders_seq", Long.class);
+                nextId = Optional.ofNullable(blockStart)
+                        .orElseThrow(() -> new IllegalStateException("orders_seq returned no value"));
+                blockEnd = nextId + ORDER_ID_BLOCK_SIZE;
+            }
+            return nextId++;
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.example.backendfix.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the order listing, the validator behind its ETag: a single row in
+ * order_listing_version, bumped by every transaction that adds, changes or removes orders.
+ *
+ * Reading it is one primary key lookup, and it lives in the database, so every node
+ * agrees on it. Writers bump it as the last statement of their transaction, so the row
+ * lock is held only until that transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderListingVersion {
+
+    private static final String SELECT_VERSION = "SELECT version FROM order_listing_version WHERE id = 1";
+    private static final String BUMP_VERSION = "UPDATE order_listing_version SET version = version + 1 WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long current() {
+        Long version = jdbcTemplate.queryForObject(SELECT_VERSION, Long.class);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Orders were written: move the listing to a new version when the write commits.
+     */
+    public void bump() {
+        jdbcTemplate.update(BUMP_VERSION);
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderPageCacheProperties;
+import com.example.backendfix.dto.OrderSearchCriteria;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded in-process cache of the first pages of the default order listing, kept as
+ * the serialized JSON response body (and a gzip-compressed copy) together with its
+ * ETag. A hit is written to the response as-is, with no query,
+ * entity or Jackson work.
+ *
+ * Order writes invalidate the whole cache through {@link #invalidate()}, immediately
+ * and again once the transaction completes. A page read before an invalidation is
+ * never cached after it. Hit/miss counts are published as cache.* meters tagged
+ * cache=order-pages.
+ */
+@Component
+public class OrderPageCache {
+
+    public record Key(int page, int size, CountMode countMode) {
+    }
+
+    /**
+     * A serialized page; gzip is null when compression is disabled or the page is small,
+     * etag is null for listings without an exact count.
+     */
+    public record SerializedPage(byte[] json, byte[] gzip, String etag) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final OrderPageCacheProperties properties;
+    private final Cache<Key, SerializedPage> pages;
+    private final AtomicLong generation = new AtomicLong();
+
+    public OrderPageCache(ObjectMapper objectMapper,
+                          OrderPageCacheProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "order-pages");
+    }
+
+    /**
+     * Cache key of a listing request, or empty if the request is not cached (filtered or
+     * re-sorted listings, and pages past orders.page-cache.max-pages).
+     */
+    public Optional<Key> keyFor(Pageable pageable, CountMode countMode, OrderSearchCriteria criteria) {
+        if (!properties.isEnabled()
+                || !criteria.isDefaultListing()
+                || pageable.getPageNumber() >= properties.getMaxPages()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Key(pageable.getPageNumber(), pageable.getPageSize(), countMode));
+    }
+
+    public Optional<SerializedPage> get(Key key) {
+        return Optional.ofNullable(pages.getIfPresent(key));
+    }
+
+    /**
+     * Current generation; read it before loading a page and pass it to {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Serialize a page and cache it, unless the cache was invalidated since
+     * readGeneration. The serialized page is returned either way.
+     */
+    public SerializedPage put(Key key, long readGeneration, Object page, String etag) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(page);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] gzip = properties.isGzip() && json.length >= properties.getGzipMinSize().toBytes()
+                ? gzip(json)
+                : null;
+        SerializedPage serialized = new SerializedPage(json, gzip, etag);
+        pages.put(key, serialized);
+        if (generation.get() != readGeneration) {
+            pages.invalidate(key);
+        }
+        return serialized;
+    }
+
+    /**
+     * Orders were written: drop all cached pages. Inside a transaction they are dropped
+     * again after commit, so a concurrent reader cannot re-cache the old pages in between.
+     */
+    public void invalidate() {
+        invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateAll();
+                }
+            });
+        }
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderQueryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for order listing reads. While a read for a key is running, identical
+ * requests wait for its result (or its exception) instead of running their own queries,
+ * so a burst of the same GET /orders costs one read. Nothing is cached: the key is
+ * released as soon as the read completes, and callers arriving later start a new read.
+ * Callers should enter outside any transaction, so waiting requests hold no connection.
+ * Coalesced requests are counted as orders.query.coalesced.
+ */
+@Component
+public class OrderQueryCoalescer {
+
+    private final OrderQueryProperties properties;
+    private final Counter coalesced;
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public OrderQueryCoalescer(OrderQueryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.coalesced = Counter.builder("orders.query.coalesced")
+                .description("Order listing requests that shared a concurrent identical read")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the read for a normalized query key, or join the identical read already in
+     * flight. The key must implement equals and hashCode over every input of the read.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> read) {
+        if (!properties.isCoalesce()) {
+            return read.get();
+        }
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            coalesced.increment();
+            return (T) await(running);
+        }
+        try {
+            T result = read.get();
+            // Released before completion: a request arriving after this read has
+            // finished must not be handed its result
+            inFlight.remove(key, own);
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderQueryProperties;
+import com.example.backendfix.exception.InvalidRequestException;
+import com.example.backendfix.exception.QueryCostExceededException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Request-cost guard for order listings.
+ *
+ * An OFFSET query has to read and discard every skipped row, so its cost grows with
+ * offset + size. Requests whose window exceeds the configured budget are rejected (or,
+ * for the page size, clamped) before any query runs.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderQueryGuard {
+
+    private final OrderQueryProperties properties;
+
+    /**
+     * Validate an offset-paged request and turn it into a Pageable.
+     */
+    public Pageable toPageable(int page, int size) {
+        if (page < 0) {
+            throw new InvalidRequestException("Page index must not be negative");
+        }
+        int pageSize = checkPageSize(size);
+
+        long offset = (long) page * pageSize;
+        if (offset > properties.getMaxOffset()) {
+            throw new QueryCostExceededException(String.format(
+                    "Requested window (offset %d + size %d = %d rows scanned) exceeds the limit of %d; "
+                            + "use cursor pagination (?after=) to read deeper",
+                    offset, pageSize, offset + pageSize, properties.getMaxOffset() + pageSize));
+        }
+        return PageRequest.of(page, pageSize);
+    }
+
+    /**
+     * Validate the page size of a request, clamping it when configured to.
+     */
+    public int checkPageSize(int size) {
+        if (size < 1) {
+            throw new InvalidRequestException("Page size must be at least 1");
+        }
+        if (size > properties.getMaxPageSize()) {
+            if (properties.isClampPageSize()) {
+                return properties.getMaxPageSize();
+            }
+            throw new QueryCostExceededException(String.format(
+                    "Page size %d exceeds the maximum of %d", size, properties.getMaxPageSize()));
+        }
+        return size;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.dto.OrderSearchCriteria;
+import com.example.backendfix.exception.InvalidRequestException;
+
+/**
+ * Rejects filter/sort combinations that no index on orders can serve.
+ *
+ * Supported indexes (schema.sql):
+ * - PRIMARY KEY (id)
+ * - idx_orders_created_at (created_at, id)
+ * - idx_orders_price (price, id)
+ * - idx_orders_product_id (product_id, id)
+ * - idx_orders_product_created_at (product_id, created_at, id)
+ *
+ * A range filter must be on the sort column so the index can both seek and return
+ * rows in order; anything else would fall back to a scan plus sort of the table.
+ */
+public final class OrderSearchPolicy {
+
+    private OrderSearchPolicy() {
+    }
+
+    public static void validate(OrderSearchCriteria criteria) {
+        if (criteria.hasCreatedAtRange() && criteria.hasPriceRange()) {
+            throw new InvalidRequestException("Filtering on both createdAt and price is not supported");
+        }
+        if (criteria.hasCreatedAtRange() && criteria.getSortKey() != OrderSortKey.CREATED_AT) {
+            throw new InvalidRequestException("A createdAt range requires sort=createdAt");
+        }
+        if (criteria.hasPriceRange() && criteria.getSortKey() != OrderSortKey.PRICE) {
+            throw new InvalidRequestException("A price range requires sort=price");
+        }
+        if (criteria.getProductId() != null && criteria.getSortKey() == OrderSortKey.PRICE) {
+            throw new InvalidRequestException("Filtering by productId cannot be combined with price sort or range");
+        }
+        if (criteria.getCreatedFrom() != null && criteria.getCreatedTo() != null
+                && criteria.getCreatedFrom().isAfter(criteria.getCreatedTo())) {
+            throw new InvalidRequestException("createdFrom must not be after createdTo");
+        }
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new InvalidRequestException("minPrice must not be greater than maxPrice");
+        }
+    }
+
+}
@@ -1,13 +1,63 @@
 package com.example.backendfix.service;
 
+import com.example.backendfix.dto.BatchOrderResponse;
+import com.example.backendfix.dto.CursorPage;
+import com.example.backendfix.dto.OrderListing;
+import com.example.backendfix.dto.OrderPatch;
+import com.example.backendfix.dto.OrderSearchCriteria;
+import com.example.backendfix.dto.OrderSummary;
 import com.example.backendfix.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface OrderService {
 
     Page<Order> getAllOrders(Pageable pageable);
 
+    Slice<Order> getOrderSlice(Pageable pageable);
+
+    Page<Order> getAllOrdersWithEstimatedTotal(Pageable pageable);
+
+    Slice<Order> searchOrders(OrderSearchCriteria criteria, Pageable pageable, CountMode countMode);
+
+    Page<OrderSummary> getOrderSummaries(Pageable pageable);
+
+    /**
+     * Read a listing page and its ETag in one transaction. Only exact-count listings have an
+     * ETag; the page is left out when it is among clientETags, i.e. the client's copy is
+     * still current.
+     */
+    OrderListing readListingIfChanged(OrderSearchCriteria criteria, Pageable pageable,
+                                      CountMode countMode, Collection<String> clientETags);
+
+    CursorPage<Order> getOrdersAfter(String cursor, int size);
+
+    void exportOrders(OrderFileFormat format, OutputStream outputStream) throws IOException;
+
     Order createOrder(Order order);
 
+    Order createOrder(Order order, String idempotencyKey);
+
+    Optional<Order> findByIdempotencyKey(String idempotencyKey);
+
+    BatchOrderResponse createOrders(List<Order> orders);
+
+    /**
+     * Apply a partial update if the order is still at the patch's version.
+     *
+     * @return the order's new version
+     */
+    long updateOrder(Long id, OrderPatch patch);
+
+    Slice<OrderSummary> getArchivedOrders(Pageable pageable);
+
+    OrderSummary getArchivedOrder(Long id);
+
 }
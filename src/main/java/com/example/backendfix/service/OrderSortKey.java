@@ -0,0 +1,33 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Whitelisted sort keys for the order listing. Each one is the leading column of an
+ * index on orders (see schema.sql), with id as the tie-breaker.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum OrderSortKey {
+
+    ID("id"),
+    CREATED_AT("createdAt"),
+    PRICE("price");
+
+    private final String property;
+
+    public static OrderSortKey fromParameter(String value) {
+        if (value == null) {
+            return ID;
+        }
+        for (OrderSortKey key : values()) {
+            if (key.property.equalsIgnoreCase(value.trim())) {
+                return key;
+            }
+        }
+        throw new InvalidRequestException("Unsupported sort key: " + value);
+    }
+
+}
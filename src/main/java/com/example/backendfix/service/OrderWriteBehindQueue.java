@@ -0,0 +1,217 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderIngestProperties;
+import com.example.backendfix.dto.BatchOrderResponse;
+import com.example.backendfix.dto.BatchOrderResult;
+import com.example.backendfix.dto.OrderTicket;
+import com.example.backendfix.entity.Order;
+import com.example.backendfix.exception.IngestQueueFullException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind ingestion with group commit.
+ *
+ * In ASYNC mode POST /orders only places the order on a bounded in-memory queue and
+ * returns a ticket. A single background batcher drains the queue once maxBatchSize
+ * orders are waiting or flushInterval has passed since the first one arrived, and
+ * commits the whole group through {@link OrderService#createOrders} in one transaction,
+ * turning many small commits into a few large ones. A full queue is reported as 429,
+ * and queued orders are committed before shutdown completes. Submissions hold a shared
+ * lock and shutdown takes it exclusively, so no order is queued after the final drain.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderWriteBehindQueue {
+
+    private final OrderService orderService;
+    private final OrderIngestProperties properties;
+
+    private final Map<String, OrderTicket> tickets = new ConcurrentHashMap<>();
+    private final Queue<TicketExpiry> ticketExpiries = new ConcurrentLinkedQueue<>();
+
+    private BlockingQueue<PendingOrder> queue;
+    private Thread batcher;
+    private volatile boolean running;
+    private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        running = true;
+        batcher = new Thread(this::runBatcher, "order-write-behind");
+        batcher.setDaemon(true);
+        batcher.start();
+        log.info("Order write-behind ingestion enabled (capacity={}, batch={}, interval={})",
+                properties.getQueueCapacity(), properties.getMaxBatchSize(), properties.getFlushInterval());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (batcher == null) {
+            return;
+        }
+        // Stop accepting work, then let the batcher commit whatever is still queued. Taking
+        // the write lock waits out submissions that passed the running check.
+        submitLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+        batcher.join(properties.getShutdownTimeout().toMillis());
+        if (batcher.isAlive()) {
+            log.warn("Write-behind batcher did not drain within {}; {} orders not committed",
+                    properties.getShutdownTimeout(), queue.size());
+            return;
+        }
+        // Orders offered while the batcher was exiting
+        List<PendingOrder> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining) > 0) {
+            commit(remaining);
+            remaining.clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.getMode() == OrderIngestProperties.Mode.ASYNC;
+    }
+
+    /**
+     * Queue an order for the next group commit.
+     *
+     * @throws IngestQueueFullException when the queue is at capacity
+     */
+    public OrderTicket submit(Order order) {
+        submitLock.readLock().lock();
+        try {
+            return enqueue(order);
+        } finally {
+            submitLock.readLock().unlock();
+        }
+    }
+
+    private OrderTicket enqueue(Order order) {
+        if (!running) {
+            throw new IngestQueueFullException("Order ingestion is not accepting orders");
+        }
+        OrderTicket ticket = OrderTicket.builder()
+                .ticketId(UUID.randomUUID().toString())
+                .status(OrderTicket.Status.PENDING)
+                .submittedAt(LocalDateTime.now())
+                .build();
+        tickets.put(ticket.getTicketId(), ticket);
+        if (!queue.offer(new PendingOrder(ticket, order))) {
+            tickets.remove(ticket.getTicketId());
+            throw new IngestQueueFullException(String.format(
+                    "Order queue is full (%d pending); retry later", properties.getQueueCapacity()));
+        }
+        ticketExpiries.add(new TicketExpiry(ticket.getTicketId(),
+                System.nanoTime() + properties.getTicketRetention().toNanos()));
+        return ticket;
+    }
+
+    public Optional<OrderTicket> findTicket(String ticketId) {
+        return Optional.ofNullable(tickets.get(ticketId));
+    }
+
+    private void runBatcher() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        int maxBatchSize = properties.getMaxBatchSize();
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    expireTickets();
+                    continue;
+                }
+                batch.add(first);
+
+                // Fill the group until it is full or the first order has waited flushInterval
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                commit(batch);
+                batch.clear();
+                expireTickets();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        try {
+            List<Order> orders = batch.stream().map(PendingOrder::order).toList();
+            BatchOrderResponse response = orderService.createOrders(orders);
+            for (BatchOrderResult result : response.getResults()) {
+                OrderTicket ticket = batch.get(result.getIndex()).ticket();
+                if (result.getStatus() == BatchOrderResult.Status.CREATED) {
+                    ticket.setOrderId(result.getId());
+                    ticket.setStatus(OrderTicket.Status.COMMITTED);
+                } else {
+                    ticket.setError(result.getError());
+                    ticket.setStatus(OrderTicket.Status.REJECTED);
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Group commit of {} queued orders failed", batch.size(), ex);
+            for (PendingOrder pending : batch) {
+                pending.ticket().setError("Commit failed: " + ex.getClass().getSimpleName());
+                pending.ticket().setStatus(OrderTicket.Status.FAILED);
+            }
+        }
+    }
+
+    private void expireTickets() {
+        long now = System.nanoTime();
+        TicketExpiry head;
+        while ((head = ticketExpiries.peek()) != null && now - head.expiresAtNanos() > 0) {
+            ticketExpiries.poll();
+            tickets.remove(head.ticketId());
+        }
+    }
+
+    private record PendingOrder(OrderTicket ticket, Order order) {
+    }
+
+    private record TicketExpiry(String ticketId, long expiresAtNanos) {
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.ProductCacheProperties;
+import com.example.backendfix.entity.Product;
+import com.example.backendfix.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache of products by id and of product ids by unique name.
+ *
+ * Order writes resolve and validate their product here, and order pages attach their
+ * products from here instead of joining the products table. Misses for a whole page
+ * are loaded with one IN query. Both maps are size-bounded with a TTL, record
+ * hit/miss/eviction statistics, and publish them as cache.* meters tagged
+ * cache=products or cache=product-names. Unknown ids and names are never cached, so
+ * new products are found on first use. Product writes evict through
+ * {@link #evict(Long)}.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Cache<Long, Product> productsById;
+    private final Cache<String, Long> idsByName;
+
+    public ProductCache(ProductRepository productRepository,
+                        EntityManagerFactory entityManagerFactory,
+                        ProductCacheProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.productsById = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.idsByName = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, productsById, "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "product-names");
+    }
+
+    public Optional<Product> findById(Long productId) {
+        return Optional.ofNullable(findAllById(Set.of(productId)).get(productId));
+    }
+
+    /**
+     * Return the existing products among the given ids, loading all misses in one query.
+     */
+    public Map<Long, Product> findAllById(Collection<Long> productIds) {
+        return productsById.getAll(productIds, missing -> detach(productRepository.findAllById(List.<Long>copyOf(missing))).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity())));
+    }
+
+    /**
+     * Cached products are shared across requests, so they must not stay managed by the
+     * session that loaded them. This also keeps getReferenceById in that session an
+     * uninitialized proxy, so a created order serializes its product the same way
+     * whether or not its product was just loaded.
+     */
+    private List<Product> detach(List<Product> products) {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) {
+            products.forEach(entityManager::detach);
+        }
+        return products;
+    }
+
+    public boolean exists(Long productId) {
+        return findById(productId).isPresent();
+    }
+
+    /**
+     * Return the subset of the given ids that belong to existing products.
+     */
+    public Set<Long> findExisting(Collection<Long> productIds) {
+        return findAllById(productIds).keySet();
+    }
+
+    /**
+     * Resolve a product name to its id.
+     */
+    public Optional<Long> findIdByName(String name) {
+        Long productId = idsByName.getIfPresent(name);
+        if (productId != null) {
+            return Optional.of(productId);
+        }
+        Optional<Long> found = productRepository.findIdByName(name);
+        found.ifPresent(id -> idsByName.put(name, id));
+        return found;
+    }
+
+    public Optional<Product> findByName(String name) {
+        return findIdByName(name).flatMap(this::findById);
+    }
+
+    /**
+     * Drop a product after it was written. Inside a transaction it is dropped again
+     * after commit, so a concurrent reader cannot re-cache the old row in between.
+     */
+    public void evict(Long productId) {
+        invalidate(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(productId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long productId) {
+        productsById.invalidate(productId);
+        idsByName.asMap().values().removeIf(productId::equals);
+        // Writes through JDBC are invisible to Hibernate's second-level cache as well
+        entityManagerFactory.getCache().evict(Product.class, productId);
+    }
+
+}
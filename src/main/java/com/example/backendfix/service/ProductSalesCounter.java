@@ -0,0 +1,156 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.dto.ProductSalesStats;
+import com.example.backendfix.entity.ProductStats;
+import com.example.backendfix.repository.ProductStatsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live units sold, revenue and order count per product.
+ *
+ * Each committed order adds to striped LongAdder counters for its product, so writers
+ * of the same hot product never contend on a lock or a database row. A scheduled flush
+ * drains the pending deltas and adds them to product_stats in one JDBC batch and one
+ * transaction; if it fails, nothing is written and the deltas are re-queued. Reads
+ * combine the flushed totals with the deltas still in memory.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSalesCounter {
+
+    private static final String ADD_DELTA =
+            "MERGE INTO product_stats s "
+                    + "USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS DECIMAL(19, 2)), CAST(? AS BIGINT))) "
+                    + "AS d (product_id, units_sold, revenue, order_count) "
+                    + "ON s.product_id = d.product_id "
+                    + "WHEN MATCHED THEN UPDATE SET units_sold = s.units_sold + d.units_sold, "
+                    + "revenue = s.revenue + d.revenue, order_count = s.order_count + d.order_count, updated_at = ? "
+                    + "WHEN NOT MATCHED THEN INSERT (product_id, units_sold, revenue, order_count, updated_at) "
+                    + "VALUES (d.product_id, d.units_sold, d.revenue, d.order_count, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductStatsRepository productStatsRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, Counters> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Count one order. Inside a transaction the sale is counted only once it commits.
+     */
+    public void record(Long productId, int quantity, BigDecimal price) {
+        long revenueCents = toCents(price.multiply(BigDecimal.valueOf(quantity)));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(productId, quantity, revenueCents, 1);
+                }
+            });
+        } else {
+            add(productId, quantity, revenueCents, 1);
+        }
+    }
+
+    public ProductSalesStats getStats(Long productId) {
+        Optional<ProductStats> flushed = productStatsRepository.findById(productId);
+        Counters counters = pending.get(productId);
+        long unitsSold = flushed.map(ProductStats::getUnitsSold).orElse(0L);
+        BigDecimal revenue = flushed.map(ProductStats::getRevenue).orElse(BigDecimal.ZERO);
+        long orderCount = flushed.map(ProductStats::getOrderCount).orElse(0L);
+        if (counters != null) {
+            unitsSold += counters.units.sum();
+            revenue = revenue.add(BigDecimal.valueOf(counters.revenueCents.sum(), 2));
+            orderCount += counters.orders.sum();
+        }
+        return ProductSalesStats.builder()
+                .productId(productId)
+                .unitsSold(unitsSold)
+                .revenue(revenue.setScale(2, RoundingMode.HALF_UP))
+                .orderCount(orderCount)
+                .build();
+    }
+
+    /**
+     * Write the pending deltas of every product to product_stats in one batch.
+     */
+    @Scheduled(fixedDelayString = "${orders.sales.flush-interval:PT5S}")
+    public synchronized void flush() {
+        List<Delta> deltas = new ArrayList<>();
+        pending.forEach((productId, counters) -> {
+            // sumThenReset hands over every increment exactly once, even under concurrent adds
+            Delta delta = new Delta(productId, counters.units.sumThenReset(),
+                    counters.revenueCents.sumThenReset(), counters.orders.sumThenReset());
+            if (delta.orders() != 0) {
+                deltas.add(delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            // All or nothing: a partially applied batch would be re-added below and counted twice
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(ADD_DELTA, deltas.stream()
+                            .map(delta -> new Object[]{delta.productId(), delta.units(),
+                                    BigDecimal.valueOf(delta.revenueCents(), 2), delta.orders(), now, now})
+                            .toList()));
+        } catch (DataAccessException | TransactionException ex) {
+            // Nothing was written; put the deltas back so the next flush retries them
+            deltas.forEach(delta -> add(delta.productId(), delta.units(), delta.revenueCents(), delta.orders()));
+            log.warn("Failed to flush sales counters for {} products, will retry", deltas.size(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    private void add(Long productId, long units, long revenueCents, long orders) {
+        Counters counters = pending.computeIfAbsent(productId, id -> new Counters());
+        counters.units.add(units);
+        counters.revenueCents.add(revenueCents);
+        counters.orders.add(orders);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static final class Counters {
+
+        private final LongAdder units = new LongAdder();
+        private final LongAdder revenueCents = new LongAdder();
+        private final LongAdder orders = new LongAdder();
+
+    }
+
+    private record Delta(Long productId, long units, long revenueCents, long orders) {
+    }
+
+}
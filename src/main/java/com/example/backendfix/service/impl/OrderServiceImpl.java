@@ -1,42 +1,497 @@
 package com.example.backendfix.service.impl;
 
+import com.example.backendfix.config.OrderBatchProperties;
+import com.example.backendfix.dto.BatchOrderResponse;
+import com.example.backendfix.dto.BatchOrderResult;
+import com.example.backendfix.dto.CursorPage;
+import com.example.backendfix.dto.OrderListing;
+import com.example.backendfix.dto.OrderPatch;
+import com.example.backendfix.dto.OrderStockLine;
+import com.example.backendfix.dto.OrderSearchCriteria;
+import com.example.backendfix.dto.OrderSummary;
 import com.example.backendfix.entity.Order;
+import com.example.backendfix.entity.Product;
+import com.example.backendfix.exception.InsufficientStockException;
+import com.example.backendfix.exception.InvalidRequestException;
+import com.example.backendfix.exception.OrderVersionConflictException;
+import com.example.backendfix.exception.ResourceNotFoundException;
+import com.example.backendfix.repository.ArchivedOrderRepository;
 import com.example.backendfix.repository.OrderRepository;
+import com.example.backendfix.repository.ProductRepository;
+import com.example.backendfix.service.CountMode;
+import com.example.backendfix.service.InventoryReservations;
+import com.example.backendfix.service.OrderCountTracker;
+import com.example.backendfix.service.OrderCursor;
+import com.example.backendfix.service.OrderFileFormat;
+import com.example.backendfix.service.OrderListingVersion;
+import com.example.backendfix.service.OrderPageCache;
+import com.example.backendfix.service.OrderSearchPolicy;
 import com.example.backendfix.service.OrderService;
+import com.example.backendfix.service.ProductCache;
+import com.example.backendfix.service.ProductSalesCounter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Reads run in a read-only transaction by default and writes declare their own boundary.
+ * With open-in-view disabled, each call checks out one JDBC connection and returns it to
+ * the pool before the controller serializes the result.
+ */
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final OrderBatchProperties batchProperties;
+    private final OrderCountTracker orderCountTracker;
+    private final ProductSalesCounter productSalesCounter;
+    private final InventoryReservations inventoryReservations;
+    private final OrderPageCache orderPageCache;
+    private final OrderListingVersion orderListingVersion;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+    private static final String CSV_HEADER = "id,product_id,product_name,quantity,price,created_at,updated_at";
 
     @Override
     public Page<Order> getAllOrders(Pageable pageable) {
-        // PERFORMANCE OPTIMIZATION: Using JOIN FETCH query instead of standard findAll()
-        // This prevents the N+1 query problem by eagerly loading Product entities
-        // in a single query. Without this optimization, accessing order.getProduct()
-        // would trigger lazy-load queries, resulting in 1 + N database queries.
-        // With JOIN FETCH: 1 query gets all orders and their products together.
-        List<Order> orders = orderRepository.findAllOrdersWithProducts();
-        
-        // Convert to Page for pagination support
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), orders.size());
-        
-        List<Order> pageContent = orders.subList(start, end);
-        return new PageImpl<>(pageContent, pageable, orders.size());
+        // PERFORMANCE OPTIMIZATION: Two-phase page load.
+        // Phase 1 pages over order ids only (index scan + LIMIT/OFFSET, join-free count).
+        // Phase 2 fetches just those orders with their products in one JOIN FETCH, so the
+        // join covers page-size rows and Product is still loaded without N+1 queries.
+        Page<Long> ids = orderRepository.findOrderIds(pageable);
+        return new PageImpl<>(fetchWithProducts(ids.getContent()), pageable, ids.getTotalElements());
     }
 
     @Override
+    public Slice<Order> getOrderSlice(Pageable pageable) {
+        // PERFORMANCE OPTIMIZATION: No COUNT(*) for clients that never show a total
+        // (e.g. infinite scroll). The id slice reads one extra row to compute hasNext.
+        Slice<Long> ids = orderRepository.findOrderIdSlice(pageable);
+        return new SliceImpl<>(fetchWithProducts(ids.getContent()), pageable, ids.hasNext());
+    }
+
+    @Override
+    public Page<Order> getAllOrdersWithEstimatedTotal(Pageable pageable) {
+        // PERFORMANCE OPTIMIZATION: Total comes from an in-memory counter maintained by
+        // createOrder instead of a COUNT(*) over orders on every request.
+        Slice<Long> ids = orderRepository.findOrderIdSlice(pageable);
+        return new PageImpl<>(fetchWithProducts(ids.getContent()), pageable, orderCountTracker.estimate());
+    }
+
+    @Override
+    public Slice<Order> searchOrders(OrderSearchCriteria criteria, Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.ESTIMATED && criteria.hasFilters()) {
+            throw new InvalidRequestException("Estimated totals are only available without filters");
+        }
+        // Reject combinations no index can serve instead of letting them scan the table
+        OrderSearchPolicy.validate(criteria);
+
+        Slice<Long> ids = orderRepository.searchOrderIds(criteria, pageable, countMode == CountMode.EXACT);
+        List<Order> orders = fetchWithProducts(ids.getContent());
+        if (ids instanceof Page<Long> page) {
+            return new PageImpl<>(orders, pageable, page.getTotalElements());
+        }
+        if (countMode == CountMode.ESTIMATED) {
+            return new PageImpl<>(orders, pageable, orderCountTracker.estimate());
+        }
+        return new SliceImpl<>(orders, pageable, ids.hasNext());
+    }
+
+    @Override
+    public Page<OrderSummary> getOrderSummaries(Pageable pageable) {
+        // PERFORMANCE OPTIMIZATION: DTO projection (read-only transaction from the class).
+        // No Order/Product entities are hydrated, and readOnly lets Hibernate skip
+        // flushing and dirty checking for the whole call.
+        return orderRepository.findOrderSummaries(pageable);
+    }
+
+    @Override
+    public OrderListing readListingIfChanged(OrderSearchCriteria criteria, Pageable pageable,
+                                             CountMode countMode, Collection<String> clientETags) {
+        // PERFORMANCE OPTIMIZATION: Validator for conditional GETs.
+        // Only exact-count listings carry an ETag: they already pay for a COUNT, and the
+        // validator is one primary key lookup next to it. Slice and estimated listings
+        // exist to skip per-request work, so they read no validator at all. It is read in
+        // the same read-only transaction as the page, so a listing holds a single connection.
+        if (countMode != CountMode.EXACT) {
+            return new OrderListing(null, readPage(criteria, pageable, countMode));
+        }
+        String etag = listingETag(orderListingVersion.current(), criteria, pageable, countMode);
+        if (clientETags.contains(etag)) {
+            return new OrderListing(etag, null);
+        }
+        return new OrderListing(etag, readPage(criteria, pageable, countMode));
+    }
+
+    private Slice<Order> readPage(OrderSearchCriteria criteria, Pageable pageable, CountMode countMode) {
+        if (!criteria.isDefaultListing()) {
+            return searchOrders(criteria, pageable, countMode);
+        }
+        return switch (countMode) {
+            case EXACT -> getAllOrders(pageable);
+            case NONE -> getOrderSlice(pageable);
+            case ESTIMATED -> getAllOrdersWithEstimatedTotal(pageable);
+        };
+    }
+
+    private static String listingETag(long listingVersion, OrderSearchCriteria criteria,
+                                      Pageable pageable, CountMode countMode) {
+        String validator = String.join("|",
+                String.valueOf(listingVersion),
+                String.valueOf(pageable.getPageNumber()),
+                String.valueOf(pageable.getPageSize()),
+                countMode.name(),
+                criteria.toString());
+        return DigestUtils.md5DigestAsHex(validator.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public CursorPage<Order> getOrdersAfter(String cursor, int size) {
+        if (size < 1) {
+            throw new InvalidRequestException("Page size must be at least 1");
+        }
+        // PERFORMANCE OPTIMIZATION: Keyset (seek) pagination on id DESC.
+        // One extra row is read to tell whether another page exists, which avoids
+        // a COUNT(*) entirely; the seek itself is an index range scan.
+        List<Long> ids = orderRepository.findOrderIdsAfter(
+                OrderCursor.decode(cursor), PageRequest.of(0, size + 1));
+
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+        String nextCursor = hasNext ? OrderCursor.encode(pageIds.get(size - 1)) : null;
+
+        return CursorPage.<Order>builder()
+                .content(fetchWithProducts(pageIds))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public void exportOrders(OrderFileFormat format, OutputStream outputStream) throws IOException {
+        // PERFORMANCE OPTIMIZATION: One streamed query instead of thousands of pages.
+        // Rows are written as they arrive from the JDBC cursor, and the persistence
+        // context is cleared every EXPORT_CLEAR_INTERVAL rows, so heap use stays
+        // constant however many orders exist.
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == OrderFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<Order> orders = orderRepository.streamAllWithProducts()) {
+            Iterator<Order> iterator = orders.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                Order order = iterator.next();
+                if (format == OrderFileFormat.CSV) {
+                    writer.write(toCsvLine(order));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(order));
+                }
+                writer.write('\n');
+
+                if (++written % EXPORT_CLEAR_INTERVAL == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    @Override
+    @Transactional
     public Order createOrder(Order order) {
-        return orderRepository.save(order);
+        return createOrder(order, null);
+    }
+
+    @Override
+    @Transactional
+    public Order createOrder(Order order, String idempotencyKey) {
+        Long productId = order.getProduct() == null ? null : order.getProduct().getId();
+        if (productId == null) {
+            throw new InvalidRequestException("product.id is required");
+        }
+        if (order.getQuantity() == null || order.getQuantity() < 1) {
+            throw new InvalidRequestException("quantity must be at least 1");
+        }
+        if (order.getPrice() == null || order.getPrice().signum() < 0) {
+            throw new InvalidRequestException("price must not be negative");
+        }
+        // PERFORMANCE OPTIMIZATION: Resolve the product without reading it.
+        // Existence is checked against the in-process product cache, and
+        // the order points at a reference proxy, so a create is a single INSERT with no
+        // product SELECT, merge or cascade of the client-supplied Product graph.
+        if (!productCache.exists(productId)) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        // PERFORMANCE OPTIMIZATION: Reserve stock in memory, not with a product row lock.
+        // The reservation is made durable by the order's own INSERT (stock_pending) and
+        // applied to products.stock later in batches, so orders for a hot product do not
+        // serialize on its row. Stock is handed back if this transaction rolls back.
+        InventoryReservations.Outcome reservation = inventoryReservations.reserve(productId, order.getQuantity());
+        if (reservation == InventoryReservations.Outcome.INSUFFICIENT) {
+            throw new InsufficientStockException("Insufficient stock for product with id: " + productId);
+        }
+        order.setId(null);
+        order.setVersion(null);
+        order.setProduct(productRepository.getReferenceById(productId));
+        order.setIdempotencyKey(idempotencyKey);
+        order.setStockPending(reservation == InventoryReservations.Outcome.RESERVED);
+
+        // With a key, flush now so a duplicate key fails here (unique idempotency_key)
+        // rather than at commit, and the caller can return the original order.
+        Order savedOrder = idempotencyKey == null ? orderRepository.save(order) : orderRepository.saveAndFlush(order);
+        orderCountTracker.adjust(1);
+        orderListingVersion.bump();
+        orderPageCache.invalidate();
+        // Sales totals are striped in-memory counters flushed in batches, not a per-order
+        // UPDATE of the product's stats row, so orders for a hot product do not queue on it
+        productSalesCounter.record(productId, savedOrder.getQuantity(), savedOrder.getPrice());
+        return savedOrder;
+    }
+
+    @Override
+    public Optional<Order> findByIdempotencyKey(String idempotencyKey) {
+        return orderRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    @Override
+    @Transactional
+    public BatchOrderResponse createOrders(List<Order> orders) {
+        if (orders.size() > batchProperties.getMaxSize()) {
+            throw new InvalidRequestException(String.format(
+                    "Batch of %d orders exceeds the maximum of %d", orders.size(), batchProperties.getMaxSize()));
+        }
+        // PERFORMANCE OPTIMIZATION: One transaction, JDBC-batched inserts.
+        // Product ids are checked against the registry (at most one IN query) and
+        // attached as references (no Product SELECT or merge per order). Inserts are
+        // flushed and the persistence context cleared every chunk, so hibernate.jdbc.batch_size groups
+        // them into a few round trips and memory stays bounded for large bursts.
+        Set<Long> productIds = orders.stream()
+                .map(Order::getProduct)
+                .filter(product -> product != null && product.getId() != null)
+                .map(Product::getId)
+                .collect(Collectors.toSet());
+        Set<Long> existingProductIds = productCache.findExisting(productIds);
+
+        List<BatchOrderResult> results = new ArrayList<>(orders.size());
+        int created = 0;
+        for (int index = 0; index < orders.size(); index++) {
+            Order order = orders.get(index);
+            String error = validateBatchOrder(order, existingProductIds);
+            if (error != null) {
+                results.add(BatchOrderResult.builder()
+                        .index(index)
+                        .status(BatchOrderResult.Status.REJECTED)
+                        .error(error)
+                        .build());
+                continue;
+            }
+            InventoryReservations.Outcome reservation =
+                    inventoryReservations.reserve(order.getProduct().getId(), order.getQuantity());
+            if (reservation == InventoryReservations.Outcome.INSUFFICIENT) {
+                results.add(BatchOrderResult.builder()
+                        .index(index)
+                        .status(BatchOrderResult.Status.REJECTED)
+                        .error("Insufficient stock for product with id: " + order.getProduct().getId())
+                        .build());
+                continue;
+            }
+
+            order.setId(null);
+            order.setVersion(null);
+            order.setProduct(productRepository.getReferenceById(order.getProduct().getId()));
+            order.setStockPending(reservation == InventoryReservations.Outcome.RESERVED);
+            entityManager.persist(order);
+            productSalesCounter.record(order.getProduct().getId(), order.getQuantity(), order.getPrice());
+            results.add(BatchOrderResult.builder()
+                    .index(index)
+                    .status(BatchOrderResult.Status.CREATED)
+                    .id(order.getId())
+                    .build());
+
+            if (++created % batchProperties.getChunkSize() == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        orderCountTracker.adjust(created);
+        if (created > 0) {
+            orderListingVersion.bump();
+            orderPageCache.invalidate();
+        }
+
+        return BatchOrderResponse.builder()
+                .created(created)
+                .rejected(orders.size() - created)
+                .results(results)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public long updateOrder(Long id, OrderPatch patch) {
+        if (patch.getVersion() == null) {
+            throw new InvalidRequestException("version is required");
+        }
+        if (patch.getQuantity() == null && patch.getPrice() == null) {
+            throw new InvalidRequestException("At least one of quantity or price is required");
+        }
+        if (patch.getQuantity() != null && patch.getQuantity() < 1) {
+            throw new InvalidRequestException("quantity must be at least 1");
+        }
+        if (patch.getPrice() != null && patch.getPrice().signum() < 0) {
+            throw new InvalidRequestException("price must not be negative");
+        }
+
+        // A quantity change re-reserves stock, so it needs the current quantity; the
+        // version check below guarantees the row still holds what was read here
+        OrderStockLine stockLine = null;
+        if (patch.getQuantity() != null) {
+            stockLine = orderRepository.findStockLineById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+            if (!stockLine.getVersion().equals(patch.getVersion())) {
+                throw new OrderVersionConflictException(String.format(
+                        "Order %d was modified concurrently; version %d is stale", id, patch.getVersion()));
+            }
+        }
+
+        // PERFORMANCE OPTIMIZATION: Compare-and-set in a single UPDATE.
+        // The order is not loaded or dirty-checked; the version predicate rejects the write
+        // if anyone else updated the order since the client read it. Only a miss pays for a
+        // second lookup, to tell a missing order (404) from a stale version (409).
+        int updated = orderRepository.updateIfVersionMatches(
+                id, patch.getVersion(), patch.getQuantity(), patch.getPrice(), LocalDateTime.now());
+        if (updated == 0) {
+            if (!orderRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Order not found with id: " + id);
+            }
+            throw new OrderVersionConflictException(String.format(
+                    "Order %d was modified concurrently; version %d is stale", id, patch.getVersion()));
+        }
+        if (stockLine != null && !stockLine.getQuantity().equals(patch.getQuantity())) {
+            InventoryReservations.Outcome reservation = inventoryReservations.adjust(
+                    id, stockLine.getProductId(), patch.getQuantity() - stockLine.getQuantity());
+            if (reservation == InventoryReservations.Outcome.INSUFFICIENT) {
+                throw new InsufficientStockException(
+                        "Insufficient stock for product with id: " + stockLine.getProductId());
+            }
+        }
+        orderListingVersion.bump();
+        orderPageCache.invalidate();
+        return patch.getVersion() + 1;
+    }
+
+    @Override
+    public Slice<OrderSummary> getArchivedOrders(Pageable pageable) {
+        return archivedOrderRepository.findArchivedSummaries(pageable);
+    }
+
+    @Override
+    public OrderSummary getArchivedOrder(Long id) {
+        return archivedOrderRepository.findArchivedSummaryById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Archived order not found with id: " + id));
+    }
+
+    private static String validateBatchOrder(Order order, Set<Long> existingProductIds) {
+        if (order == null) {
+            return "Order must not be null";
+        }
+        if (order.getProduct() == null || order.getProduct().getId() == null) {
+            return "product.id is required";
+        }
+        if (!existingProductIds.contains(order.getProduct().getId())) {
+            return "Product not found with id: " + order.getProduct().getId();
+        }
+        if (order.getQuantity() == null || order.getQuantity() < 1) {
+            return "quantity must be at least 1";
+        }
+        if (order.getPrice() == null || order.getPrice().signum() < 0) {
+            return "price must not be negative";
+        }
+        return null;
+    }
+
+    private List<Order> fetchWithProducts(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Phase 2 returns rows in id order; restore the order chosen by phase 1
+        Map<Long, Order> ordersById = orderRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        // PERFORMANCE OPTIMIZATION: Attach products from the in-process cache.
+        // Orders arrive with uninitialized product proxies (reading their id does not
+        // load them); the page's products are taken from the cache, with any misses
+        // loaded in one IN query, so a page never joins or selects products it already has.
+        // The orders are read-only in a read-only transaction, so swapping the reference
+        // is never flushed.
+        Set<Long> productIds = ordersById.values().stream()
+                .map(order -> order.getProduct().getId())
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productCache.findAllById(productIds);
+        ordersById.values().forEach(order ->
+                order.setProduct(products.getOrDefault(order.getProduct().getId(), order.getProduct())));
+
+        return ids.stream().map(ordersById::get).filter(Objects::nonNull).toList();
+    }
+
+    private static String toCsvLine(Order order) {
+        return String.join(",",
+                String.valueOf(order.getId()),
+                String.valueOf(order.getProduct().getId()),
+                escapeCsv(order.getProduct().getName()),
+                String.valueOf(order.getQuantity()),
+                order.getPrice().toPlainString(),
+                String.valueOf(order.getCreatedAt()),
+                order.getUpdatedAt() == null ? "" : order.getUpdatedAt().toString());
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
     }
 
 }
@@ -1,6 +1,12 @@
-INSERT INTO orders (product_name, quantity, price, created_at, updated_at) VALUES
-('MacBook Pro 16-inch', 1, 2499.99, NOW(), NOW()),
-('iPhone 15 Pro', 2, 999.99, NOW(), NOW()),
-('AirPods Pro', 3, 249.99, NOW(), NOW()),
-('iPad Air', 1, 599.99, NOW(), NOW()),
-('Apple Watch Series 9', 4, 399.99, NOW(), NOW());
+INSERT INTO products (id, name, description, created_at) VALUES
+(1, 'MacBook Pro 16-inch', 'Apple laptop with M3 Pro chip', NOW()),
+(2, 'iPhone 15 Pro', 'Apple smartphone with titanium design', NOW()),
+(3, 'AirPods Pro', 'Wireless earbuds with active noise cancellation', NOW()),
+(4, 'iPad Air', 'Apple tablet with M1 chip', NOW()),
+(5, 'Apple Watch Series 9', 'Smartwatch with health tracking', NOW());
+INSERT INTO orders (id, product_id, quantity, price, created_at, updated_at) VALUES
+(1, 1, 1, 2499.99, NOW(), NOW()),
+(2, 2, 2, 999.99, NOW(), NOW()),
+(3, 3, 3, 249.99, NOW(), NOW()),
+(4, 4, 1, 599.99, NOW(), NOW()),
+(5, 5, 4, 399.99, NOW(), NOW());
@@ -1,8 +1,66 @@
+-- Ids are assigned in memory by Hibernate's pooled-lo optimizer: each sequence call
+-- reserves a block of 50 ids, so the increment must match allocationSize on the entities.
+-- Seeded products and orders use ids 1-5, so both sequences start above them.
+CREATE SEQUENCE products_seq START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE orders_seq START WITH 101 INCREMENT BY 50;
+
+CREATE TABLE products (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    description TEXT,
+    stock BIGINT,
+    created_at TIMESTAMP NOT NULL
+);
+
 CREATE TABLE orders (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    product_name VARCHAR(255) NOT NULL,
+    id BIGINT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
     quantity INT NOT NULL,
     price DECIMAL(10, 2) NOT NULL,
+    idempotency_key VARCHAR(64) UNIQUE,
+    stock_pending BOOLEAN DEFAULT FALSE NOT NULL,
     created_at TIMESTAMP NOT NULL,
-    updated_at TIMESTAMP NOT NULL
+    updated_at TIMESTAMP,
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT fk_orders_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+-- Orders moved out of the hot table by OrderArchiver; read through GET /orders/archive
+CREATE TABLE orders_archive (
+    id BIGINT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    price DECIMAL(10, 2) NOT NULL,
+    idempotency_key VARCHAR(64),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_orders_archive_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+-- Sales totals per product, incremented in batches by ProductSalesCounter
+CREATE TABLE product_stats (
+    product_id BIGINT PRIMARY KEY,
+    units_sold BIGINT NOT NULL,
+    revenue DECIMAL(19, 2) NOT NULL,
+    order_count BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_product_stats_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+-- Version of the order listing behind its ETag, bumped by every order write (see OrderListingVersion)
+CREATE TABLE order_listing_version (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL
 );
+INSERT INTO order_listing_version (id, version) VALUES (1, 0);
+
+-- Indexes backing the whitelisted filters and sort keys of GET /orders (see OrderSearchPolicy)
+CREATE INDEX idx_orders_created_at ON orders (created_at, id);
+CREATE INDEX idx_orders_price ON orders (price, id);
+CREATE INDEX idx_orders_product_id ON orders (product_id, id);
+CREATE INDEX idx_orders_product_created_at ON orders (product_id, created_at, id);
+
+-- Stock reservations not yet applied to products.stock (see InventoryReservations)
+CREATE INDEX idx_orders_stock_pending ON orders (stock_pending, product_id);
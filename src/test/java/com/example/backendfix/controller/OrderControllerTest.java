@@ -0,0 +1,197 @@
+package com.example.backendfix.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("OrderController Tests")
+class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("POST /orders should create an order from a product id only")
+    void testCreateOrderWithProductReference() throws Exception {
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"product\": {\"id\": 1}, \"quantity\": 2, \"price\": 999.99}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.product.id").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /orders should return 404 for an unknown product")
+    void testCreateOrderWithUnknownProduct() throws Exception {
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"product\": {\"id\": 999999}, \"quantity\": 2, \"price\": 999.99}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
+    @Test
+    @DisplayName("POST /orders should return the original order for a retried Idempotency-Key")
+    void testCreateOrderIsIdempotent() throws Exception {
+        String body = "{\"product\": {\"id\": 2}, \"quantity\": 1, \"price\": 249.99}";
+
+        MvcResult first = mockMvc.perform(post("/orders")
+                        .header("Idempotency-Key", "retry-test-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        MvcResult retry = mockMvc.perform(post("/orders")
+                        .header("Idempotency-Key", "retry-test-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString(),
+                "Retry should return the original response");
+    }
+
+    @Test
+    @DisplayName("PATCH /orders/{id} should return 409 when the If-Match version is stale")
+    void testPatchOrderWithStaleVersion() throws Exception {
+        MvcResult created = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"product\": {\"id\": 3}, \"quantity\": 1, \"price\": 249.00}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn();
+        Number id = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+
+        mockMvc.perform(patch("/orders/{id}", id)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\": 2}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"1\""));
+        mockMvc.perform(patch("/orders/{id}", id)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"quantity\": 3}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
+
+    @Test
+    @DisplayName("GET /orders should return 400 for malformed filter values")
+    void testMalformedFilterValues() throws Exception {
+        mockMvc.perform(get("/orders").param("createdFrom", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+        mockMvc.perform(get("/orders").param("minPrice", "cheap"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/orders").param("productId", "abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /orders should return 304 for an unchanged listing and a new ETag after a write")
+    void testConditionalGetOrders() throws Exception {
+        // Arrange
+        String order = "{\"product\": {\"id\": 1}, \"quantity\": 1, \"price\": 999.99}";
+        mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(order))
+                .andExpect(status().isCreated());
+        String etag = mockMvc.perform(get("/orders").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        // Act & Assert
+        mockMvc.perform(get("/orders").param("size", "5").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/orders").param("size", "10").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/orders").contentType(MediaType.APPLICATION_JSON).content(order))
+                .andExpect(status().isCreated());
+        String changed = mockMvc.perform(get("/orders").param("size", "5").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    @DisplayName("GET /orders should return 304 for an unchanged filtered listing")
+    void testConditionalGetFilteredOrders() throws Exception {
+        // Arrange
+        mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"product\": {\"id\": 1}, \"quantity\": 1, \"price\": 999.99}"))
+                .andExpect(status().isCreated());
+        String etag = mockMvc.perform(get("/orders").param("productId", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/orders").param("productId", "1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        mockMvc.perform(get("/orders").param("productId", "1").header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray());
+    }
+
+    @Test
+    @DisplayName("GET /orders should return a new ETag after an order is updated in place")
+    void testConditionalGetOrdersAfterUpdate() throws Exception {
+        // Arrange
+        String etag = mockMvc.perform(get("/orders").param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act
+        mockMvc.perform(patch("/orders/1")
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"price\": 2399.99}"))
+                .andExpect(status().isNoContent());
+
+        // Assert
+        String changed = mockMvc.perform(get("/orders").param("size", "5").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    @DisplayName("GET /orders should not send an ETag for slice and estimated listings")
+    void testNoETagWithoutExactCount() throws Exception {
+        mockMvc.perform(get("/orders").param("count", "false"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+        mockMvc.perform(get("/orders").param("count", "estimate").header("If-None-Match", "\"any\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+}
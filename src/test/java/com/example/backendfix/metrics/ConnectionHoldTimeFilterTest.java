@@ -0,0 +1,63 @@
+package com.example.backendfix.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Connection hold time metrics Tests")
+class ConnectionHoldTimeFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("DataSource should be wrapped to measure connection hold time")
+    void testDataSourceIsWrapped() {
+        assertInstanceOf(ConnectionHoldTimeDataSource.class, dataSource, "DataSource should be wrapped");
+    }
+
+    @Test
+    @DisplayName("GET /orders should record one connection checkout and its hold time")
+    void testOrderListingRecordsConnectionHoldTime() throws Exception {
+        // Act
+        mockMvc.perform(get("/orders").param("page", "0").param("size", "10"))
+                .andExpect(status().isOk());
+
+        // Assert
+        Timer holdTime = meterRegistry.find("db.connection.hold")
+                .tag("method", "GET")
+                .tag("uri", "/orders")
+                .timer();
+        assertNotNull(holdTime, "Hold time should be recorded for the request");
+        assertTrue(holdTime.count() >= 1, "At least one request should be recorded");
+        assertTrue(holdTime.totalTime(java.util.concurrent.TimeUnit.NANOSECONDS) > 0, "Hold time should be positive");
+
+        double checkouts = meterRegistry.find("db.connection.checkouts")
+                .tag("uri", "/orders")
+                .summary()
+                .max();
+        assertEquals(1.0, checkouts, "The listing should use a single connection in one transaction");
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderInventoryProperties;
+import com.example.backendfix.dto.BatchOrderResponse;
+import com.example.backendfix.dto.OrderImportReport;
+import com.example.backendfix.dto.OrderPatch;
+import com.example.backendfix.entity.Order;
+import com.example.backendfix.entity.Product;
+import com.example.backendfix.exception.InsufficientStockException;
+import com.example.backendfix.repository.OrderRepository;
+import com.example.backendfix.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("InventoryReservations Tests")
+class InventoryReservationsTest {
+
+    @Autowired
+    private InventoryReservations inventoryReservations;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderInventoryProperties inventoryProperties;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private OrderCacheInvalidator orderCacheInvalidator;
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.saveAndFlush(Product.builder().name("Stocked Product").build());
+        inventoryReservations.restock(product.getId(), 5);
+    }
+
+    @Test
+    @DisplayName("createOrder should take stock in memory and reject orders beyond it")
+    void testCreateOrderReservesStock() {
+        // Act
+        orderService.createOrder(order(3));
+        BatchOrderResponse batch = orderService.createOrders(List.of(order(2), order(1)));
+
+        // Assert
+        assertEquals(1, batch.getCreated());
+        assertEquals(1, batch.getRejected(), "The order beyond the stock should be rejected");
+        assertThrows(InsufficientStockException.class, () -> orderService.createOrder(order(1)));
+        assertEquals(0L, inventoryReservations.available(product.getId()).orElseThrow());
+        assertEquals(5L, storedStock(), "products.stock should not be touched until reconciliation");
+    }
+
+    @Test
+    @DisplayName("reconcile should apply pending reservations, and a restart should rebuild availability")
+    void testReconcileAndRestart() {
+        // Arrange: the reservations are read back through JDBC, so the orders must be flushed
+        orderService.createOrder(order(2));
+        orderService.createOrder(order(1));
+        orderRepository.flush();
+
+        // Act: a fresh instance stands in for a restart before reconciliation
+        long availableAfterRestart = restartedInstance().available(product.getId()).orElseThrow();
+        inventoryReservations.reconcile();
+
+        // Assert
+        assertEquals(2L, availableAfterRestart, "Pending reservations should survive a restart");
+        assertEquals(2L, storedStock(), "Reconciliation should apply both orders to products.stock");
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM orders WHERE product_id = ? AND stock_pending = TRUE",
+                Integer.class, product.getId()));
+        assertEquals(2L, restartedInstance().available(product.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("updateOrder should re-reserve stock for a changed quantity")
+    void testUpdateOrderQuantityAdjustsStock() {
+        // Arrange
+        Order created = orderService.createOrder(order(2));
+        orderRepository.flush();
+
+        // Act & Assert: a pending order takes the extra units from the in-memory counter
+        long version = orderService.updateOrder(created.getId(), patch(4, 0L));
+        assertEquals(1L, inventoryReservations.available(product.getId()).orElseThrow());
+        assertEquals(5L, storedStock(), "A pending order is applied to products.stock by reconciliation");
+
+        // Reconciliation applies the new quantity; later changes go to products.stock directly
+        inventoryReservations.reconcile();
+        assertEquals(1L, storedStock());
+        version = orderService.updateOrder(created.getId(), patch(1, version));
+        assertEquals(4L, storedStock(), "Units given back by a reconciled order should return to stock");
+
+        long staleVersion = version;
+        assertThrows(InsufficientStockException.class,
+                () -> orderService.updateOrder(created.getId(), patch(20, staleVersion)));
+    }
+
+    private static OrderPatch patch(int quantity, long version) {
+        return OrderPatch.builder().quantity(quantity).version(version).build();
+    }
+
+    @Test
+    @DisplayName("importOrders should store historical orders without taking stock")
+    void testImportOrdersTakesNoStock() throws IOException {
+        // Arrange: more units than the product has in stock
+        String ndjson = "{\"productId\":" + product.getId() + ",\"quantity\":7,\"price\":10,"
+                + "\"createdAt\":\"2020-01-01T10:00:00\"}\n";
+
+        // Act
+        OrderImportReport report = orderImportService.importOrders(OrderFileFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        inventoryReservations.reconcile();
+
+        // Assert
+        assertEquals(1, report.getImported(), "History is imported regardless of current stock");
+        assertEquals(5L, inventoryReservations.available(product.getId()).orElseThrow());
+        assertEquals(5L, storedStock(), "Imported orders should never be reconciled against stock");
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM orders WHERE product_id = ? AND stock_pending = TRUE",
+                Integer.class, product.getId()));
+    }
+
+    private Order order(int quantity) {
+        return Order.builder()
+                .product(Product.builder().id(product.getId()).build())
+                .quantity(quantity)
+                .price(BigDecimal.ONE)
+                .build();
+    }
+
+    private InventoryReservations restartedInstance() {
+        return new InventoryReservations(
+                jdbcTemplate, transactionManager, inventoryProperties, productCache, orderCacheInvalidator);
+    }
+
+    private Long storedStock() {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Long.class, product.getId());
+    }
+
+}
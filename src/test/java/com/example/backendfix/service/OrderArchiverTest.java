@@ -0,0 +1,104 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderArchiveProperties;
+import com.example.backendfix.dto.OrderSummary;
+import com.example.backendfix.entity.Order;
+import com.example.backendfix.entity.Product;
+import com.example.backendfix.exception.ResourceNotFoundException;
+import com.example.backendfix.repository.OrderRepository;
+import com.example.backendfix.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("OrderArchiver Tests")
+class OrderArchiverTest {
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private OrderArchiveProperties archiveProperties;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int originalChunkSize;
+    private Duration originalPause;
+
+    @BeforeEach
+    void setUp() {
+        originalChunkSize = archiveProperties.getChunkSize();
+        originalPause = archiveProperties.getPause();
+        archiveProperties.setChunkSize(2);
+        archiveProperties.setPause(Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiveProperties.setChunkSize(originalChunkSize);
+        archiveProperties.setPause(originalPause);
+    }
+
+    @Test
+    @DisplayName("archive should move only old orders, chunk by chunk, and keep them readable")
+    void testArchiveMovesOldOrders() {
+        // Arrange
+        Product product = productRepository.save(Product.builder().name("Archive Product").build());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(orderService.createOrder(Order.builder()
+                    .product(product)
+                    .quantity(i + 1)
+                    .price(BigDecimal.TEN)
+                    .build()).getId());
+        }
+        orderRepository.flush();
+        Timestamp longAgo = Timestamp.valueOf(LocalDateTime.now().minusDays(400));
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id IN (?, ?, ?)",
+                longAgo, ids.get(0), ids.get(1), ids.get(2));
+
+        // Act
+        long archived = orderArchiver.archive();
+
+        // Assert
+        assertEquals(3, archived, "Orders past max-age should be archived across two chunks");
+        assertEquals(List.of(ids.get(3)), orderRepository.findAllById(ids).stream().map(Order::getId).toList(),
+                "Only the recent order should remain in the hot table");
+        Slice<OrderSummary> archivedOrders = orderService.getArchivedOrders(PageRequest.of(0, 10));
+        assertEquals(List.of(ids.get(2), ids.get(1), ids.get(0)),
+                archivedOrders.getContent().stream().map(OrderSummary::getId).toList());
+        assertEquals("Archive Product", orderService.getArchivedOrder(ids.get(0)).getProductName());
+        assertThrows(ResourceNotFoundException.class, () -> orderService.getArchivedOrder(ids.get(3)));
+    }
+
+}
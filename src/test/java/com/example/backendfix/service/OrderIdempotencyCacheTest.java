@@ -0,0 +1,72 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderIdempotencyProperties;
+import com.example.backendfix.entity.Order;
+import com.example.backendfix.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Not transactional: the retry must see the first order committed, as it would on
+ * another node. The order is deleted afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("OrderIdempotencyCache Tests")
+class OrderIdempotencyCacheTest {
+
+    private static final String IDEMPOTENCY_KEY = "fallback-test-key";
+
+    @Autowired
+    private OrderIdempotencyCache orderIdempotencyCache;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderIdempotencyProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM orders WHERE idempotency_key = ?", IDEMPOTENCY_KEY);
+    }
+
+    @Test
+    @DisplayName("createOrder should return the original body when the key is only found in the database")
+    void testDatabaseFallbackReturnsOriginalBody() throws Exception {
+        // Arrange
+        String first = objectMapper.writeValueAsString(orderIdempotencyCache.createOrder(IDEMPOTENCY_KEY, newOrder()));
+
+        // Act: a node that never saw the key falls back to the unique idempotency_key column
+        OrderIdempotencyCache otherNode = new OrderIdempotencyCache(orderService, properties);
+        String retry = objectMapper.writeValueAsString(otherNode.createOrder(IDEMPOTENCY_KEY, newOrder()));
+
+        // Assert
+        assertEquals(first, retry, "A retry should get the same body wherever it lands");
+    }
+
+    private static Order newOrder() {
+        return Order.builder()
+                .product(Product.builder().id(2L).build())
+                .quantity(1)
+                .price(new BigDecimal("249.99"))
+                .build();
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.example.backendfix.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("OrderPageCache Tests")
+class OrderPageCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderPageCache orderPageCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            createOrder();
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("a repeated first page should be written from cached bytes without any query")
+    void testFirstPageIsServedFromCache() throws Exception {
+        // Arrange
+        String first = listFirstPage().getResponse().getContentAsString();
+        long statements = statistics.getPrepareStatementCount();
+
+        // Act
+        String second = listFirstPage().getResponse().getContentAsString();
+
+        // Assert
+        assertEquals(first, second, "The cached page should match the serialized page");
+        assertEquals(statements, statistics.getPrepareStatementCount(), "A hit should run no query");
+    }
+
+    @Test
+    @DisplayName("createOrder should invalidate the cached pages")
+    void testCreateOrderInvalidatesPages() throws Exception {
+        // Arrange
+        long generation = orderPageCache.generation();
+        String before = listFirstPage().getResponse().getContentAsString();
+
+        // Act
+        String created = createOrder();
+        String after = listFirstPage().getResponse().getContentAsString();
+
+        // Assert
+        assertTrue(orderPageCache.generation() > generation, "The write should start a new generation");
+        assertNotEquals(before, after);
+        assertTrue(after.contains("\"id\":" + created), "The new order should be on the first page");
+    }
+
+    @Test
+    @DisplayName("clients accepting gzip should get the compressed copy of the same page")
+    void testGzipPage() throws Exception {
+        // Arrange
+        String json = listFirstPage().getResponse().getContentAsString();
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/orders").param("size", "10").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        // Assert
+        byte[] compressed = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(json, new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("filtered listings and pages past max-pages should not be cached")
+    void testOnlyHotDefaultPagesAreCached() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/orders").param("size", "10").param("productId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Vary"));
+        mockMvc.perform(get("/orders").param("page", "5").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Vary"));
+    }
+
+    private MvcResult listFirstPage() throws Exception {
+        return mockMvc.perform(get("/orders").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_JSON_VALUE))
+                .andReturn();
+    }
+
+    private String createOrder() throws Exception {
+        String body = mockMvc.perform(post("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"product\": {\"id\": 1}, \"quantity\": 1, \"price\": 999.99}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return body.replaceAll("^\\{\"id\":(\\d+).*$", "$1");
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.example.backendfix.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("OrderQueryCoalescer Tests")
+class OrderQueryCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    @Autowired
+    private OrderQueryCoalescer orderQueryCoalescer;
+
+    @Test
+    @DisplayName("identical concurrent reads should run once and share the result")
+    void testIdenticalReadsAreCoalesced() throws Exception {
+        // Arrange
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+        try {
+            // Act
+            List<Future<Object>> callers = new ArrayList<>();
+            callers.add(executor.submit(() -> orderQueryCoalescer.execute("page-0", () -> {
+                reads.incrementAndGet();
+                started.countDown();
+                await(release);
+                return result;
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS), "The first read should start");
+            for (int i = 1; i < CALLERS; i++) {
+                callers.add(executor.submit(() -> orderQueryCoalescer.execute("page-0", () -> {
+                    reads.incrementAndGet();
+                    return new Object();
+                })));
+            }
+            // Followers are waiting on the running read; give them time to join it
+            Thread.sleep(200);
+            release.countDown();
+
+            // Assert
+            for (Future<Object> caller : callers) {
+                assertSame(result, caller.get(5, TimeUnit.SECONDS), "Every caller should get the shared result");
+            }
+            assertEquals(1, reads.get(), "Only one read should have run");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("a failed read should fail its followers and not block later reads")
+    void testFailureIsSharedAndReleased() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act
+            Future<Object> leader = executor.submit(() -> orderQueryCoalescer.execute("failing", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("query failed");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS), "The first read should start");
+            Future<Object> follower = executor.submit(() -> orderQueryCoalescer.execute("failing", Object::new));
+            Thread.sleep(200);
+            release.countDown();
+
+            // Assert
+            Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+            assertInstanceOf(IllegalStateException.class, followerFailure.getCause());
+            assertEquals("fresh", orderQueryCoalescer.execute("failing", () -> "fresh"),
+                    "A read after the failure should run again");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderQueryProperties;
+import com.example.backendfix.exception.InvalidRequestException;
+import com.example.backendfix.exception.QueryCostExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderQueryGuard Tests")
+class OrderQueryGuardTest {
+
+    private OrderQueryProperties properties;
+    private OrderQueryGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderQueryProperties();
+        properties.setMaxPageSize(50);
+        properties.setMaxOffset(1_000);
+        guard = new OrderQueryGuard(properties);
+    }
+
+    @Test
+    @DisplayName("toPageable should accept requests within budget")
+    void testToPageableAcceptsRequestWithinBudget() {
+        Pageable pageable = guard.toPageable(20, 50);
+
+        assertEquals(20, pageable.getPageNumber(), "Page should be kept");
+        assertEquals(50, pageable.getPageSize(), "Size should be kept");
+    }
+
+    @Test
+    @DisplayName("toPageable should reject oversized pages and deep offsets")
+    void testToPageableRejectsOverBudgetRequests() {
+        assertThrows(QueryCostExceededException.class, () -> guard.toPageable(0, 1_000_000));
+        assertThrows(QueryCostExceededException.class, () -> guard.toPageable(500_000, 10));
+        assertThrows(InvalidRequestException.class, () -> guard.toPageable(-1, 10));
+        assertThrows(InvalidRequestException.class, () -> guard.toPageable(0, 0));
+    }
+
+    @Test
+    @DisplayName("toPageable should clamp oversized pages when configured")
+    void testToPageableClampsPageSize() {
+        properties.setClampPageSize(true);
+
+        Pageable pageable = guard.toPageable(0, 1_000_000);
+
+        assertEquals(50, pageable.getPageSize(), "Size should be clamped to the maximum");
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.entity.Order;
+import com.example.backendfix.entity.Product;
+import com.example.backendfix.repository.OrderRepository;
+import com.example.backendfix.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the per-page cost of the list path (read-only, query-cached) with a plain
+ * stateful load of the same query.
+ *
+ * Disabled by default; run with:
+ * mvn test -Dtest=OrderReadPathBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Order read path benchmark")
+class OrderReadPathBenchmarkTest {
+
+    private static final int ORDER_COUNT = 500;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1000;
+
+    /** The page query of OrderRepository.findAllByIdIn; products are attached from ProductCache. */
+    private static final String PAGE_QUERY = "SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id DESC";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private List<Long> pageIds;
+
+    @BeforeEach
+    void setUp() {
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        readWriteTransaction.executeWithoutResult(status -> {
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                products.add(productRepository.save(Product.builder().name("Benchmark Product " + i).build()));
+            }
+            for (int i = 0; i < ORDER_COUNT; i++) {
+                orderRepository.save(Order.builder()
+                        .product(products.get(i % products.size()))
+                        .quantity(i % 7 + 1)
+                        .price(BigDecimal.valueOf(10 + i))
+                        .build());
+            }
+        });
+        pageIds = orderRepository.findOrderIds(PageRequest.of(0, PAGE_SIZE)).getContent();
+    }
+
+    @AfterEach
+    void tearDown() {
+        readWriteTransaction.executeWithoutResult(status -> {
+            orderRepository.deleteAllInBatch();
+            productRepository.deleteAllInBatch();
+        });
+    }
+
+    @Test
+    @DisplayName("read-only page load should allocate less than a stateful load")
+    void benchmarkReadOnlyVersusStatefulPageLoad() {
+        Runnable stateful = () -> readWriteTransaction.executeWithoutResult(status -> {
+            List<Order> orders = entityManager.createQuery(PAGE_QUERY, Order.class)
+                    .setParameter("ids", pageIds)
+                    .getResultList();
+            assertEquals(PAGE_SIZE, orders.size());
+        });
+        Runnable readOnly = () -> readOnlyTransaction.executeWithoutResult(status -> {
+            // Same hints as OrderRepository.findAllByIdIn, so repeated pages come from the query cache
+            List<Order> orders = entityManager.createQuery(PAGE_QUERY, Order.class)
+                    .setParameter("ids", pageIds)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .getResultList();
+            assertEquals(PAGE_SIZE, orders.size());
+        });
+
+        Measurement statefulResult = measure(stateful);
+        Measurement readOnlyResult = measure(readOnly);
+
+        System.out.printf("Stateful page load:  %,d bytes/page, %,d ns CPU/page%n",
+                statefulResult.bytesPerIteration(), statefulResult.cpuNanosPerIteration());
+        System.out.printf("Read-only page load: %,d bytes/page, %,d ns CPU/page%n",
+                readOnlyResult.bytesPerIteration(), readOnlyResult.cpuNanosPerIteration());
+        System.out.printf("Saved per page:      %,d bytes, %,d ns CPU%n",
+                statefulResult.bytesPerIteration() - readOnlyResult.bytesPerIteration(),
+                statefulResult.cpuNanosPerIteration() - readOnlyResult.cpuNanosPerIteration());
+
+        assertTrue(readOnlyResult.bytesPerIteration() < statefulResult.bytesPerIteration(),
+                "Read-only path should allocate less per page");
+    }
+
+    private static Measurement measure(Runnable pageLoad) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            pageLoad.run();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long cpuBefore = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            pageLoad.run();
+        }
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        long cpu = threads.getCurrentThreadCpuTime() - cpuBefore;
+
+        return new Measurement(bytes / MEASURED_ITERATIONS, cpu / MEASURED_ITERATIONS);
+    }
+
+    private record Measurement(long bytesPerIteration, long cpuNanosPerIteration) {
+    }
+
+}
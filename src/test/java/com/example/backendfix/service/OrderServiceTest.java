@@ -1,20 +1,41 @@
 package com.example.backendfix.service;
 
+import com.example.backendfix.config.OrderImportProperties;
+import com.example.backendfix.dto.BatchOrderResponse;
+import com.example.backendfix.dto.BatchOrderResult;
+import com.example.backendfix.dto.CursorPage;
+import com.example.backendfix.dto.OrderImportReport;
+import com.example.backendfix.dto.OrderPatch;
+import com.example.backendfix.dto.OrderSearchCriteria;
+import com.example.backendfix.dto.OrderSummary;
 import com.example.backendfix.entity.Order;
 import com.example.backendfix.entity.Product;
+import com.example.backendfix.exception.InvalidRequestException;
+import com.example.backendfix.exception.OrderVersionConflictException;
+import com.example.backendfix.exception.ResourceNotFoundException;
 import com.example.backendfix.repository.OrderRepository;
+import com.example.backendfix.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,16 +51,28 @@ class OrderServiceTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderImportService orderImportService;
+
+    @Autowired
+    private OrderImportProperties importProperties;
+
     private Product testProduct;
     private Order testOrder;
 
     @BeforeEach
     void setUp() {
+        // Start from an empty orders table; the seeded orders return when the test rolls back
+        orderRepository.deleteAllInBatch();
+
         // Create test product
-        testProduct = Product.builder()
+        testProduct = productRepository.save(Product.builder()
                 .name("Test Product")
                 .description("A test product for unit tests")
-                .build();
+                .build());
 
         // Create test order
         testOrder = Order.builder()
@@ -133,4 +166,371 @@ class OrderServiceTest {
         assertEquals("Test Product", retrievedOrder.getProduct().getName(), "Product name should match");
     }
 
+    @Test
+    @DisplayName("getAllOrders should return an empty page past the last order")
+    void testGetAllOrdersBeyondLastPageIsEmpty() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            orderService.createOrder(Order.builder()
+                    .product(testProduct)
+                    .quantity(1)
+                    .price(BigDecimal.valueOf(10.00 + i))
+                    .build());
+        }
+
+        // Act
+        Page<Order> result = orderService.getAllOrders(PageRequest.of(5, 10));
+
+        // Assert
+        assertTrue(result.getContent().isEmpty(), "Page past the end should be empty");
+        assertEquals(3, result.getTotalElements(), "Total should still come from the count query");
+    }
+
+    @Test
+    @DisplayName("getOrdersAfter should walk all orders by cursor without gaps or duplicates")
+    void testGetOrdersAfterWalksAllOrders() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(Order.builder()
+                    .product(testProduct)
+                    .quantity(i + 1)
+                    .price(BigDecimal.valueOf(20.00 + i))
+                    .build());
+        }
+
+        // Act
+        CursorPage<Order> firstPage = orderService.getOrdersAfter(null, 2);
+        // An order created mid-walk must not shift the following pages
+        orderService.createOrder(Order.builder()
+                .product(testProduct)
+                .quantity(9)
+                .price(BigDecimal.valueOf(99.00))
+                .build());
+        CursorPage<Order> secondPage = orderService.getOrdersAfter(firstPage.getNextCursor(), 2);
+        CursorPage<Order> thirdPage = orderService.getOrdersAfter(secondPage.getNextCursor(), 2);
+
+        // Assert
+        List<Long> ids = new ArrayList<>();
+        firstPage.getContent().forEach(order -> ids.add(order.getId()));
+        secondPage.getContent().forEach(order -> ids.add(order.getId()));
+        thirdPage.getContent().forEach(order -> ids.add(order.getId()));
+
+        assertEquals(5, ids.size(), "Cursor walk should visit every original order once");
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) > ids.get(i), "Orders should be in id DESC order");
+        }
+        assertTrue(firstPage.isHasNext(), "First page should have a next cursor");
+        assertTrue(secondPage.isHasNext(), "Second page should have a next cursor");
+        assertFalse(thirdPage.isHasNext(), "Last page should not have a next cursor");
+        assertNull(thirdPage.getNextCursor(), "Last page should not carry a cursor");
+    }
+
+    @Test
+    @DisplayName("getOrdersAfter should reject a malformed cursor")
+    void testGetOrdersAfterRejectsMalformedCursor() {
+        assertThrows(InvalidRequestException.class, () -> orderService.getOrdersAfter("not-a-cursor", 10));
+    }
+
+    @Test
+    @DisplayName("getOrderSlice should page without a total")
+    void testGetOrderSliceReportsNextPageWithoutTotal() {
+        // Arrange
+        for (int i = 0; i < 15; i++) {
+            orderService.createOrder(Order.builder()
+                    .product(testProduct)
+                    .quantity(i + 1)
+                    .price(BigDecimal.valueOf(30.00 + i))
+                    .build());
+        }
+
+        // Act
+        Slice<Order> firstSlice = orderService.getOrderSlice(PageRequest.of(0, 10));
+        Slice<Order> secondSlice = orderService.getOrderSlice(PageRequest.of(1, 10));
+
+        // Assert
+        assertFalse(firstSlice instanceof Page, "Slice mode should not compute a total");
+        assertEquals(10, firstSlice.getContent().size(), "First slice should have 10 items");
+        assertTrue(firstSlice.hasNext(), "First slice should report a next page");
+        assertEquals(5, secondSlice.getContent().size(), "Second slice should have 5 items");
+        assertFalse(secondSlice.hasNext(), "Second slice should be the last");
+        assertNotNull(secondSlice.getContent().get(0).getProduct().getName(), "Products should be loaded");
+    }
+
+    @Test
+    @DisplayName("getOrderSummaries should return projected rows with product data")
+    void testGetOrderSummariesReturnsProjection() {
+        // Arrange
+        Order savedOrder = orderService.createOrder(testOrder);
+
+        // Act
+        Page<OrderSummary> result = orderService.getOrderSummaries(PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(1, result.getTotalElements(), "Should have one order");
+        OrderSummary summary = result.getContent().get(0);
+        assertEquals(savedOrder.getId(), summary.getId(), "Order ID should match");
+        assertEquals(5, summary.getQuantity(), "Quantity should match");
+        assertEquals(0, BigDecimal.valueOf(99.99).compareTo(summary.getPrice()), "Price should match");
+        assertEquals(testProduct.getId(), summary.getProductId(), "Product ID should match");
+        assertEquals("Test Product", summary.getProductName(), "Product name should match");
+        assertNotNull(summary.getCreatedAt(), "CreatedAt should be projected");
+    }
+
+    @Test
+    @DisplayName("exportOrders should stream one line per order")
+    void testExportOrdersStreamsEveryOrder() throws IOException {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            orderService.createOrder(Order.builder()
+                    .product(testProduct)
+                    .quantity(i + 1)
+                    .price(BigDecimal.valueOf(40.00 + i))
+                    .build());
+        }
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+
+        // Act
+        orderService.exportOrders(OrderFileFormat.NDJSON, ndjson);
+        orderService.exportOrders(OrderFileFormat.CSV, csv);
+
+        // Assert
+        String[] jsonLines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        String[] csvLines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, jsonLines.length, "NDJSON should have one line per order");
+        assertTrue(jsonLines[0].contains("\"Test Product\""), "NDJSON should include the product");
+        assertEquals(4, csvLines.length, "CSV should have a header and one line per order");
+        assertTrue(csvLines[0].startsWith("id,product_id"), "CSV should start with a header");
+        assertTrue(csvLines[1].contains(",Test Product,1,"), "CSV rows should hold order columns");
+    }
+
+    @Test
+    @DisplayName("searchOrders should filter by price range and sort by price")
+    void testSearchOrdersFiltersByPriceRange() {
+        // Arrange
+        Product otherProduct = productRepository.save(Product.builder()
+                .name("Other Product")
+                .build());
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(Order.builder()
+                    .product(i % 2 == 0 ? testProduct : otherProduct)
+                    .quantity(1)
+                    .price(BigDecimal.valueOf(50 - i * 10))
+                    .build());
+        }
+        OrderSearchCriteria byPrice = OrderSearchCriteria.builder()
+                .minPrice(BigDecimal.valueOf(20))
+                .maxPrice(BigDecimal.valueOf(40))
+                .sortKey(OrderSortKey.PRICE)
+                .direction(Sort.Direction.ASC)
+                .build();
+        OrderSearchCriteria byProduct = OrderSearchCriteria.builder()
+                .productId(otherProduct.getId())
+                .build();
+
+        // Act
+        Slice<Order> priceResult = orderService.searchOrders(byPrice, PageRequest.of(0, 10), CountMode.EXACT);
+        Slice<Order> productResult = orderService.searchOrders(byProduct, PageRequest.of(0, 10), CountMode.NONE);
+
+        // Assert
+        assertEquals(3, ((Page<Order>) priceResult).getTotalElements(), "Three orders fall in the price range");
+        assertEquals(0, BigDecimal.valueOf(20).compareTo(priceResult.getContent().get(0).getPrice()),
+                "Cheapest order should come first");
+        assertEquals(0, BigDecimal.valueOf(40).compareTo(priceResult.getContent().get(2).getPrice()),
+                "Most expensive order should come last");
+        assertEquals(2, productResult.getContent().size(), "Two orders belong to the other product");
+        assertTrue(productResult.getContent().stream()
+                .allMatch(order -> "Other Product".equals(order.getProduct().getName())), "Products should match");
+    }
+
+    @Test
+    @DisplayName("searchOrders should reject filters that no index can serve")
+    void testSearchOrdersRejectsUnindexedCombination() {
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                .minPrice(BigDecimal.TEN)
+                .sortKey(OrderSortKey.CREATED_AT)
+                .build();
+
+        assertThrows(InvalidRequestException.class,
+                () -> orderService.searchOrders(criteria, PageRequest.of(0, 10), CountMode.EXACT));
+    }
+
+    @Test
+    @DisplayName("createOrders should persist valid orders and report rejected ones")
+    void testCreateOrdersReportsPerItemResults() {
+        // Arrange
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            orders.add(Order.builder()
+                    .product(Product.builder().id(testProduct.getId()).build())
+                    .quantity(i + 1)
+                    .price(BigDecimal.valueOf(10 + i))
+                    .build());
+        }
+        orders.add(Order.builder()
+                .product(Product.builder().id(-1L).build())
+                .quantity(1)
+                .price(BigDecimal.ONE)
+                .build());
+        orders.add(Order.builder()
+                .product(Product.builder().id(testProduct.getId()).build())
+                .quantity(0)
+                .price(BigDecimal.ONE)
+                .build());
+
+        // Act
+        BatchOrderResponse response = orderService.createOrders(orders);
+
+        // Assert
+        assertEquals(120, response.getCreated(), "Valid orders should be created");
+        assertEquals(2, response.getRejected(), "Invalid orders should be rejected");
+        assertEquals(BatchOrderResult.Status.CREATED, response.getResults().get(0).getStatus());
+        assertNotNull(response.getResults().get(0).getId(), "Created orders should report their id");
+        assertEquals(BatchOrderResult.Status.REJECTED, response.getResults().get(120).getStatus());
+        assertTrue(response.getResults().get(120).getError().contains("Product not found"));
+        assertEquals(BatchOrderResult.Status.REJECTED, response.getResults().get(121).getStatus());
+        assertEquals(120, orderService.getAllOrders(PageRequest.of(0, 10)).getTotalElements(),
+                "Created orders should be persisted");
+    }
+
+    @Test
+    @DisplayName("createOrder should fail fast for an unknown product")
+    void testCreateOrderRejectsUnknownProduct() {
+        Order order = Order.builder()
+                .product(Product.builder().id(-1L).build())
+                .quantity(1)
+                .price(BigDecimal.ONE)
+                .build();
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(order));
+    }
+
+    @Test
+    @DisplayName("createOrder should enforce a unique Idempotency-Key in the database")
+    void testCreateOrderRejectsDuplicateIdempotencyKey() {
+        // Arrange
+        Order savedOrder = orderService.createOrder(testOrder, "unique-key");
+        Order duplicate = Order.builder()
+                .product(testProduct)
+                .quantity(1)
+                .price(BigDecimal.ONE)
+                .build();
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> orderService.createOrder(duplicate, "unique-key"));
+        assertEquals(savedOrder.getId(), orderService.findByIdempotencyKey("unique-key").orElseThrow().getId(),
+                "The original order should be found by its key");
+    }
+
+    @Test
+    @DisplayName("importOrders should write valid CSV rows in chunks and report rejected lines")
+    void testImportOrdersFromCsv() throws IOException {
+        // Arrange: names resolve against the seeded catalogue, since the name cache outlives test rollbacks
+        String csv = "product_name,quantity,price,created_at\n"
+                + "AirPods Pro,1,10.00,2024-01-01T10:00:00\n"
+                + "\"AirPods Pro\",2,20.00,\n"
+                + "Unknown Product,1,5.00,\n"
+                + "AirPods Pro,0,5.00,\n"
+                + "iPad Air,3,30.00,2024-01-02T10:00:00\n";
+
+        // Act
+        OrderImportReport report = orderImportService.importOrders(OrderFileFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(6, report.getLinesRead(), "Header and all rows should be read");
+        assertEquals(3, report.getImported(), "Valid rows should be imported");
+        assertEquals(2, report.getRejected(), "Unknown product and zero quantity should be rejected");
+        assertEquals(List.of(4L, 5L), report.getRejections().stream()
+                .map(OrderImportReport.Rejection::getLine).toList());
+        Page<Order> orders = orderService.getAllOrders(PageRequest.of(0, 10));
+        assertEquals(3, orders.getTotalElements(), "Imported orders should be listed");
+        assertEquals("iPad Air", orders.getContent().get(0).getProduct().getName(),
+                "Newest imported order should resolve its product");
+    }
+
+    @Test
+    @DisplayName("importOrders should accept NDJSON lines with a nested product")
+    void testImportOrdersFromNdjson() throws IOException {
+        // Arrange: the importer writes through JDBC, so the product row must be in the database
+        productRepository.flush();
+        String ndjson = "{\"product\":{\"id\":" + testProduct.getId() + "},\"quantity\":2,\"price\":12.50}\n"
+                + "{\"productName\":\"iPhone 15 Pro\",\"quantity\":1,\"price\":3}\n"
+                + "not json\n";
+
+        // Act
+        OrderImportReport report = orderImportService.importOrders(OrderFileFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(1, report.getChunksCommitted());
+    }
+
+    @Test
+    @DisplayName("importOrders should reject the lines of a failed chunk and keep importing")
+    void testImportOrdersContinuesAfterFailedChunk() throws IOException {
+        // Arrange: chunks of two lines; the price on line 3 does not fit DECIMAL(10, 2)
+        productRepository.flush();
+        int originalChunkSize = importProperties.getChunkSize();
+        importProperties.setChunkSize(2);
+        String row = "{\"productId\":" + testProduct.getId() + ",\"quantity\":1,\"price\":%s}\n";
+        String ndjson = String.format(row, "1") + String.format(row, "2")
+                + String.format(row, "100000000000") + String.format(row, "4")
+                + String.format(row, "5");
+
+        // Act
+        OrderImportReport report;
+        try {
+            report = orderImportService.importOrders(OrderFileFormat.NDJSON,
+                    new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+        } finally {
+            importProperties.setChunkSize(originalChunkSize);
+        }
+
+        // Assert
+        assertEquals(3, report.getImported(), "Chunks before and after the failed one should be imported");
+        assertEquals(2, report.getChunksCommitted());
+        assertEquals(List.of(3L, 4L), report.getRejections().stream()
+                .map(OrderImportReport.Rejection::getLine).toList(),
+                "Every line of the failed chunk should be reported");
+        assertEquals(List.of(1.0, 2.0, 5.0), orderRepository.findAll().stream()
+                .map(order -> order.getPrice().doubleValue()).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("updateOrder should apply a partial update and bump the version")
+    void testUpdateOrderAppliesPatch() {
+        // Arrange
+        Order savedOrder = orderService.createOrder(testOrder);
+        assertEquals(0L, savedOrder.getVersion(), "New orders should start at version 0");
+
+        // Act
+        long version = orderService.updateOrder(savedOrder.getId(),
+                OrderPatch.builder().quantity(7).version(0L).build());
+
+        // Assert
+        Order updatedOrder = orderRepository.findById(savedOrder.getId()).orElseThrow();
+        assertEquals(1L, version);
+        assertEquals(1L, updatedOrder.getVersion());
+        assertEquals(7, updatedOrder.getQuantity(), "Quantity should be updated");
+        assertEquals(0, BigDecimal.valueOf(99.99).compareTo(updatedOrder.getPrice()), "Price should be unchanged");
+    }
+
+    @Test
+    @DisplayName("updateOrder should reject a stale version and report unknown orders")
+    void testUpdateOrderRejectsStaleVersion() {
+        // Arrange
+        Order savedOrder = orderService.createOrder(testOrder);
+        orderService.updateOrder(savedOrder.getId(), OrderPatch.builder().price(BigDecimal.TEN).version(0L).build());
+        OrderPatch stalePatch = OrderPatch.builder().quantity(1).version(0L).build();
+
+        // Act & Assert
+        assertThrows(OrderVersionConflictException.class, () -> orderService.updateOrder(savedOrder.getId(), stalePatch));
+        assertThrows(ResourceNotFoundException.class, () -> orderService.updateOrder(-1L, stalePatch));
+        assertEquals(5, orderRepository.findById(savedOrder.getId()).orElseThrow().getQuantity(),
+                "A conflicting update should not be applied");
+    }
+
 }
@@ -0,0 +1,154 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.config.OrderIngestProperties;
+import com.example.backendfix.dto.BatchOrderResponse;
+import com.example.backendfix.dto.BatchOrderResult;
+import com.example.backendfix.dto.OrderTicket;
+import com.example.backendfix.entity.Order;
+import com.example.backendfix.exception.IngestQueueFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("OrderWriteBehindQueue Tests")
+class OrderWriteBehindQueueTest {
+
+    private OrderService orderService;
+    private OrderIngestProperties properties;
+    private OrderWriteBehindQueue writeBehindQueue;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            List<BatchOrderResult> results = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                results.add(BatchOrderResult.builder()
+                        .index(i)
+                        .status(BatchOrderResult.Status.CREATED)
+                        .id(100L + i)
+                        .build());
+            }
+            return BatchOrderResponse.builder().created(orders.size()).results(results).build();
+        });
+
+        properties = new OrderIngestProperties();
+        properties.setMode(OrderIngestProperties.Mode.ASYNC);
+        properties.setMaxBatchSize(10);
+        properties.setFlushInterval(Duration.ofMillis(200));
+        writeBehindQueue = new OrderWriteBehindQueue(orderService, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBehindQueue.stop();
+    }
+
+    @Test
+    @DisplayName("submit should group queued orders into one commit")
+    void testSubmittedOrdersAreGroupCommitted() throws InterruptedException {
+        // Arrange
+        writeBehindQueue.start();
+
+        // Act
+        List<OrderTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tickets.add(writeBehindQueue.submit(newOrder()));
+        }
+        writeBehindQueue.stop();
+
+        // Assert
+        verify(orderService, times(1)).createOrders(anyList());
+        for (OrderTicket ticket : tickets) {
+            OrderTicket status = writeBehindQueue.findTicket(ticket.getTicketId()).orElseThrow();
+            assertEquals(OrderTicket.Status.COMMITTED, status.getStatus(), "Ticket should be committed");
+            assertNotNull(status.getOrderId(), "Committed ticket should carry the order id");
+        }
+    }
+
+    @Test
+    @DisplayName("submit should apply backpressure when the queue is full")
+    void testSubmitRejectsWhenQueueIsFull() throws InterruptedException {
+        // Arrange: block the batcher inside its first commit
+        CountDownLatch commitStarted = new CountDownLatch(1);
+        CountDownLatch releaseCommit = new CountDownLatch(1);
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            commitStarted.countDown();
+            releaseCommit.await();
+            return BatchOrderResponse.builder().results(List.of()).build();
+        });
+        properties.setQueueCapacity(2);
+        properties.setFlushInterval(Duration.ofMillis(1));
+        writeBehindQueue.start();
+
+        writeBehindQueue.submit(newOrder());
+        assertTrue(commitStarted.await(5, TimeUnit.SECONDS), "Batcher should start committing");
+
+        // Act
+        writeBehindQueue.submit(newOrder());
+        writeBehindQueue.submit(newOrder());
+
+        // Assert
+        assertThrows(IngestQueueFullException.class, () -> writeBehindQueue.submit(newOrder()));
+        releaseCommit.countDown();
+    }
+
+    @Test
+    @DisplayName("stop should commit every order whose submit succeeded")
+    void testStopCommitsEveryAcceptedOrder() throws InterruptedException {
+        // Arrange: submitters keep racing the shutdown until they are turned away
+        properties.setQueueCapacity(10_000);
+        properties.setMaxBatchSize(1_000);
+        writeBehindQueue.start();
+        List<OrderTicket> tickets = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> submitters = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread submitter = new Thread(() -> {
+                try {
+                    while (true) {
+                        tickets.add(writeBehindQueue.submit(newOrder()));
+                    }
+                } catch (IngestQueueFullException ex) {
+                    // Shutting down
+                }
+            });
+            submitter.start();
+            submitters.add(submitter);
+        }
+        Thread.sleep(50);
+
+        // Act
+        writeBehindQueue.stop();
+        for (Thread submitter : submitters) {
+            submitter.join(5_000);
+        }
+
+        // Assert
+        assertFalse(tickets.isEmpty());
+        for (OrderTicket ticket : tickets) {
+            assertEquals(OrderTicket.Status.COMMITTED, ticket.getStatus(), "No accepted order may stay pending");
+        }
+    }
+
+    private static Order newOrder() {
+        return Order.builder()
+                .quantity(1)
+                .price(BigDecimal.TEN)
+                .build();
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.entity.Order;
+import com.example.backendfix.entity.Product;
+import com.example.backendfix.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.proxy.HibernateProxy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("ProductCache Tests")
+class ProductCacheTest {
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("findById should load a product once and then serve it from memory")
+    void testFindByIdHitsCache() {
+        // Arrange
+        Product product = productRepository.saveAndFlush(Product.builder().name("Cached Product").build());
+        double hitsBefore = gets("hit");
+        double missesBefore = gets("miss");
+
+        // Act
+        productCache.findById(product.getId());
+        productCache.findById(product.getId());
+        productCache.findById(product.getId());
+
+        // Assert
+        assertEquals(1, gets("miss") - missesBefore, "Only the first lookup should miss");
+        assertEquals(2, gets("hit") - hitsBefore, "Later lookups should hit the cache");
+    }
+
+    @Test
+    @DisplayName("updating a product should evict it from the cache")
+    void testProductUpdateEvicts() {
+        // Arrange
+        Product product = productRepository.saveAndFlush(Product.builder().name("Evicted Product").build());
+        productCache.findById(product.getId());
+        double missesBefore = gets("miss");
+
+        // Act
+        product.setDescription("changed");
+        productRepository.saveAndFlush(product);
+        productCache.findById(product.getId());
+
+        // Assert
+        assertEquals(1, gets("miss") - missesBefore, "The updated product should be reloaded");
+    }
+
+    @Test
+    @DisplayName("order pages should attach products from the cache")
+    void testOrderPageAttachesCachedProducts() {
+        // Arrange
+        Product product = productRepository.saveAndFlush(Product.builder().name("Listed Product").build());
+        orderService.createOrder(Order.builder()
+                .product(Product.builder().id(product.getId()).build())
+                .quantity(1)
+                .price(BigDecimal.ONE)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<Order> orders = orderService.getAllOrders(PageRequest.of(0, 10)).getContent();
+
+        // Assert
+        Product listedProduct = orders.get(0).getProduct();
+        assertFalse(listedProduct instanceof HibernateProxy, "The product should be a loaded instance");
+        assertEquals("Listed Product", listedProduct.getName());
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", "products", "result", result)
+                .functionCounter()
+                .count();
+    }
+
+}
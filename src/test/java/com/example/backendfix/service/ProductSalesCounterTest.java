@@ -0,0 +1,89 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.dto.ProductSalesStats;
+import com.example.backendfix.entity.ProductStats;
+import com.example.backendfix.repository.ProductStatsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("ProductSalesCounter Tests")
+class ProductSalesCounterTest {
+
+    private static final Long PRODUCT_ID = 4L;
+    private static final Long OTHER_PRODUCT_ID = 5L;
+    private static final Long MISSING_PRODUCT_ID = 999_999L;
+
+    @Autowired
+    private ProductSalesCounter productSalesCounter;
+
+    @Autowired
+    private ProductStatsRepository productStatsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("flush should add committed sales to product_stats and skip rolled back ones")
+    void testFlushAddsCommittedSales() {
+        // Arrange
+        ProductSalesStats before = productSalesCounter.getStats(PRODUCT_ID);
+        productSalesCounter.record(PRODUCT_ID, 2, new BigDecimal("10.50"));
+        productSalesCounter.record(PRODUCT_ID, 2, new BigDecimal("10.50"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productSalesCounter.record(PRODUCT_ID, 1, new BigDecimal("0.01"));
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productSalesCounter.record(PRODUCT_ID, 100, BigDecimal.TEN);
+            status.setRollbackOnly();
+        });
+
+        // Act
+        productSalesCounter.flush();
+
+        // Assert
+        ProductSalesStats after = productSalesCounter.getStats(PRODUCT_ID);
+        assertEquals(5, after.getUnitsSold() - before.getUnitsSold(), "Only committed units should be counted");
+        assertEquals(3, after.getOrderCount() - before.getOrderCount());
+        assertEquals(new BigDecimal("42.01"), after.getRevenue().subtract(before.getRevenue()));
+        assertEquals(after.getUnitsSold(), productStatsRepository.findById(PRODUCT_ID).orElseThrow().getUnitsSold(),
+                "All deltas should have been written to product_stats");
+    }
+
+    @Test
+    @DisplayName("a failed flush should write nothing and count every re-queued delta once")
+    void testFailedFlushWritesNothing() {
+        // Arrange: a counter of its own, so its unflushable delta does not reach the shared bean
+        ProductSalesCounter counter = new ProductSalesCounter(jdbcTemplate, productStatsRepository, transactionManager);
+        long flushedBefore = productStatsRepository.findById(OTHER_PRODUCT_ID)
+                .map(ProductStats::getUnitsSold).orElse(0L);
+        long unitsBefore = counter.getStats(OTHER_PRODUCT_ID).getUnitsSold();
+        counter.record(OTHER_PRODUCT_ID, 3, BigDecimal.ONE);
+        counter.record(MISSING_PRODUCT_ID, 1, BigDecimal.ONE);
+
+        // Act
+        counter.flush();
+
+        // Assert
+        assertEquals(flushedBefore, productStatsRepository.findById(OTHER_PRODUCT_ID)
+                        .map(ProductStats::getUnitsSold).orElse(0L),
+                "The batch should have been rolled back as a whole");
+        assertEquals(unitsBefore + 3, counter.getStats(OTHER_PRODUCT_ID).getUnitsSold(),
+                "The re-queued delta should be counted exactly once");
+    }
+
+}
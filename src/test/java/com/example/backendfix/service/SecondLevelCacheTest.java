@@ -0,0 +1,126 @@
+package com.example.backendfix.service;
+
+import com.example.backendfix.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Not transactional: every load runs in its own transaction and persistence context,
+ * so repeated reads can only be served by the second-level cache.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Second-Level Cache Tests")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderCacheInvalidator orderCacheInvalidator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("a product loaded again in a new session should come from the second-level cache")
+    void testProductIsServedFromSecondLevelCache() {
+        // Arrange
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> assertNotNull(entityManager.find(Product.class, 1L)));
+
+        // Act
+        transaction.executeWithoutResult(status -> assertNotNull(entityManager.find(Product.class, 1L)));
+
+        // Assert
+        assertTrue(statistics.getDomainDataRegionStatistics("products").getHitCount() >= 1,
+                "The second load should hit the products region");
+    }
+
+    @Test
+    @DisplayName("a repeated order page should come from the query cache until orders are written")
+    void testOrderPageIsServedFromQueryCache() {
+        // Arrange
+        orderService.getAllOrders(PageRequest.of(0, 10));
+        long missesAfterFirstLoad = statistics.getQueryCacheMissCount();
+
+        // Act
+        orderService.getAllOrders(PageRequest.of(0, 10));
+        long hitsAfterRepeat = statistics.getQueryCacheHitCount();
+        orderCacheInvalidator.evictOrderPages();
+        orderService.getAllOrders(PageRequest.of(0, 10));
+
+        // Assert
+        assertTrue(missesAfterFirstLoad >= 1, "The first load should populate the query cache");
+        assertTrue(hitsAfterRepeat >= 1, "The repeated load should be answered by the query cache");
+        assertTrue(statistics.getQueryCacheMissCount() > missesAfterFirstLoad,
+                "After orders are written the page should be queried again");
+    }
+
+    @Test
+    @DisplayName("a page read while a JDBC write is in flight should not be served after it commits")
+    void testPageReadDuringJdbcWriteIsNotServedAfterCommit() throws Exception {
+        // Arrange
+        long totalBefore = orderService.getAllOrders(PageRequest.of(0, 10)).getTotalElements();
+        Long orderId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR orders_seq", Long.class);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act: a reader on another connection caches the old page while the insert is uncommitted
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.update("INSERT INTO orders (id, product_id, quantity, price, created_at, updated_at) "
+                        + "VALUES (?, 1, 1, 1.00, NOW(), NOW())", orderId);
+                orderCacheInvalidator.evictOrderPages();
+                try {
+                    assertEquals(totalBefore, reader.submit(() ->
+                            orderService.getAllOrders(PageRequest.of(0, 10)).getTotalElements()).get());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            long totalAfter = orderService.getAllOrders(PageRequest.of(0, 10)).getTotalElements();
+
+            // Assert
+            assertEquals(totalBefore + 1, totalAfter, "The page cached during the write should be stale");
+        } finally {
+            reader.shutdownNow();
+            jdbcTemplate.update("DELETE FROM orders WHERE id = ?", orderId);
+            orderCacheInvalidator.evictOrderPages();
+        }
+    }
+
+}